@@ -0,0 +1,582 @@
+package artifacts;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utility.EventJournal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+/**
+ * The ArtifactDownloader class downloads session artifacts such as videos and logs straight to disk.
+ * Each file is split into byte ranges fetched in parallel, and every chunk the HTTP client receives is written
+ * with a positional {@link FileChannel} write at its offset, so no file is ever assembled in the heap.
+ *
+ * <p>Progress is kept next to the download in a small {@code .progress} file, so an interrupted download
+ * resumes from where each range stopped as long as the server still reports the same size and ETag.
+ * A finished download is checked against the size the server announced and, if given, a SHA-256 checksum
+ * before it is moved to its target. One semaphore bounds the HTTP requests in flight across every file this
+ * downloader handles, so bulk archiving cannot flood the network or the server.
+ */
+public class ArtifactDownloader {
+    private final Logger ltLogger = LogManager.getLogger(ArtifactDownloader.class);
+
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 16;
+    private static final int DEFAULT_PARTS_PER_FILE = 4;
+    private static final long DEFAULT_MIN_PART_SIZE = 8L << 20;
+    private static final long PROGRESS_SAVE_INTERVAL = 8L << 20;
+    private static final long HASH_CHUNK_SIZE = 64L << 20;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final String PARTIAL_SUFFIX = ".partial";
+    private static final String PROGRESS_SUFFIX = ".progress";
+    private static final int PROGRESS_MAGIC = 0x4C54444C;
+    private static final int PROGRESS_VERSION = 1;
+
+    private final HttpClient client;
+    private final Semaphore requestSlots;
+    private final int partsPerFile;
+    private final long minPartSize;
+    private final Map<String, String> headers = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor for the ArtifactDownloader class.
+     * Initializes a downloader with up to 16 requests in flight, split into at most 4 ranges of at least 8 MB per file.
+     */
+    public ArtifactDownloader() {
+        this(DEFAULT_MAX_CONCURRENT_REQUESTS, DEFAULT_PARTS_PER_FILE, DEFAULT_MIN_PART_SIZE);
+    }
+
+    /**
+     * Constructs an ArtifactDownloader.
+     *
+     * @param maxConcurrentRequests The maximum number of HTTP requests in flight across all downloads.
+     * @param partsPerFile          The maximum number of ranges a single file is split into.
+     * @param minPartSize           The smallest range worth a request of its own, in bytes.
+     */
+    public ArtifactDownloader(int maxConcurrentRequests, int partsPerFile, long minPartSize) {
+        if (maxConcurrentRequests < 1 || partsPerFile < 1 || minPartSize < 1) {
+            throw new IllegalArgumentException("Concurrency, parts per file and part size must be positive");
+        }
+        this.requestSlots = new Semaphore(maxConcurrentRequests, true);
+        this.partsPerFile = partsPerFile;
+        this.minPartSize = minPartSize;
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    /**
+     * Sets a header sent with every request, for example an API token.
+     *
+     * @param name  The header name.
+     * @param value The header value.
+     */
+    public void setHeader(String name, String value) {
+        headers.put(name, value);
+    }
+
+    /**
+     * Sends HTTP basic authentication with every request.
+     *
+     * @param userName  The username for authentication.
+     * @param accessKey The access key for authentication.
+     */
+    public void setBasicAuth(String userName, String accessKey) {
+        String credentials = userName + ":" + accessKey;
+        setHeader("Authorization", "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Downloads an artifact, verifying only its size.
+     *
+     * @param uri    The artifact URI.
+     * @param target The file to write; an existing file is replaced once the download is verified.
+     * @return The download result.
+     * @throws IOException If the download fails or the artifact does not verify.
+     */
+    public DownloadResult download(URI uri, Path target) throws IOException {
+        return download(uri, target, null);
+    }
+
+    /**
+     * Downloads an artifact, verifying its size and SHA-256 checksum.
+     *
+     * @param uri            The artifact URI.
+     * @param target         The file to write; an existing file is replaced once the download is verified.
+     * @param expectedSha256 The expected SHA-256 checksum in hex, or null to verify the size only.
+     * @return The download result.
+     * @throws IOException If the download fails or the artifact does not verify.
+     */
+    public DownloadResult download(URI uri, Path target, String expectedSha256) throws IOException {
+        long start = System.nanoTime();
+        DownloadResult result = null;
+        try {
+            result = transfer(uri, target, expectedSha256, start);
+            return result;
+        } finally {
+            EventJournal.log(EventJournal.Source.ARTIFACTS, "download", uri.toString(), null, start, result != null, result == null ? -1 : result.getSize());
+        }
+    }
+
+    private DownloadResult transfer(URI uri, Path target, String expectedSha256, long start) throws IOException {
+        Path partial = sibling(target, PARTIAL_SUFFIX);
+        Path progressFile = sibling(target, PROGRESS_SUFFIX);
+        Files.createDirectories(target.toAbsolutePath().getParent());
+
+        long size;
+        int parts = 1;
+        long resumed = 0;
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            HttpResponse<Long> probe = send(request(uri).header("Range", "bytes=0-0").build(), info -> {
+                if (info.statusCode() != 200) {
+                    return BodySubscribers.replacing(0L);
+                }
+                // The server ignored the range and is sending the whole file; write it rather than ask again
+                truncate(channel, 0);
+                return new ChannelSubscriber(channel, 0, Long.MAX_VALUE, written -> { });
+            });
+
+            switch (probe.statusCode()) {
+                case 200 -> {
+                    size = probe.body();
+                    long announced = probe.headers().firstValueAsLong("Content-Length").orElse(size);
+                    if (announced != size) {
+                        throw new IOException("Expected " + announced + " bytes from " + uri + " but received " + size);
+                    }
+                    Files.deleteIfExists(progressFile);
+                }
+                case 206 -> {
+                    size = totalLength(probe, uri);
+                    String validator = probe.headers().firstValue("ETag")
+                            .or(() -> probe.headers().firstValue("Last-Modified")).orElse("");
+                    Progress progress = Progress.load(progressFile);
+                    if (progress != null && progress.matches(size, validator) && progress.isOnDisk(channel.size())) {
+                        resumed = progress.completed();
+                        ltLogger.info("Resuming download of {} with {} of {} bytes already on disk", uri, resumed, size);
+                    } else {
+                        int partCount = (int) Math.max(1, Math.min(partsPerFile, size / minPartSize));
+                        progress = new Progress(progressFile, size, validator, partCount);
+                        truncate(channel, 0);
+                    }
+                    parts = progress.parts();
+                    downloadParts(uri, channel, progress);
+                    if (progress.completed() != size || channel.size() != size) {
+                        throw new IOException("Download of " + uri + " is incomplete :- " + channel.size() + " of " + size + " bytes");
+                    }
+                }
+                case 416 -> {
+                    size = 0;
+                    truncate(channel, 0);
+                    Files.deleteIfExists(progressFile);
+                }
+                default -> throw new IOException("Unexpected HTTP status " + probe.statusCode() + " downloading " + uri);
+            }
+            channel.force(false);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (expectedSha256 != null) {
+            String actual = sha256(partial);
+            if (!actual.equalsIgnoreCase(expectedSha256)) {
+                Files.deleteIfExists(partial);
+                Files.deleteIfExists(progressFile);
+                throw new IOException("Checksum mismatch for " + uri + " :- expected " + expectedSha256 + " but was " + actual);
+            }
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(progressFile);
+
+        DownloadResult result = new DownloadResult(uri, target, size, parts, resumed, Duration.ofNanos(System.nanoTime() - start), null);
+        ltLogger.info("Downloaded artifact :- {}", result);
+        return result;
+    }
+
+    /**
+     * Downloads several artifacts concurrently, verifying their sizes. A failed artifact does not stop the others.
+     *
+     * @param artifacts The artifact URIs and the files to write them to.
+     * @return One result per artifact, in the iteration order of the map.
+     */
+    public List<DownloadResult> downloadAll(Map<URI, Path> artifacts) {
+        return downloadAll(artifacts, Collections.emptyMap());
+    }
+
+    /**
+     * Downloads several artifacts concurrently, verifying their sizes and any checksums given.
+     * A failed artifact does not stop the others.
+     *
+     * @param artifacts      The artifact URIs and the files to write them to.
+     * @param expectedSha256 The expected SHA-256 checksums by URI; artifacts without one are verified by size only.
+     * @return One result per artifact, in the iteration order of the map.
+     */
+    public List<DownloadResult> downloadAll(Map<URI, Path> artifacts, Map<URI, String> expectedSha256) {
+        List<Future<DownloadResult>> futures = new ArrayList<>();
+        List<DownloadResult> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            artifacts.forEach((uri, target) -> futures.add(executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return download(uri, target, expectedSha256.get(uri));
+                } catch (Exception e) {
+                    ltLogger.error("Failed to download {} :- {}", uri, e.toString());
+                    return new DownloadResult(uri, target, -1, 0, 0, Duration.ofNanos(System.nanoTime() - start), e);
+                }
+            })));
+            for (Future<DownloadResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while downloading artifacts", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Artifact download task failed", e.getCause());
+        }
+        long failed = results.stream().filter(result -> !result.isSuccessful()).count();
+        ltLogger.info("Downloaded {} artifacts, {} failed", results.size() - failed, failed);
+        return results;
+    }
+
+    private void downloadParts(URI uri, FileChannel channel, Progress progress) throws IOException {
+        List<Future<Void>> futures = new ArrayList<>();
+        IOException failure = null;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int part = 0; part < progress.parts(); part++) {
+                if (progress.remaining(part) > 0) {
+                    int index = part;
+                    futures.add(executor.submit(() -> {
+                        downloadPart(uri, channel, progress, index);
+                        return null;
+                    }));
+                }
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    IOException cause = e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+                    if (failure == null) {
+                        failure = cause;
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new InterruptedIOException("Interrupted while downloading " + uri);
+        } finally {
+            // Whatever happened, leave a progress file that matches the bytes on disk
+            channel.force(false);
+            progress.save();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void downloadPart(URI uri, FileChannel channel, Progress progress, int part) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            long from = progress.position(part);
+            long to = progress.end(part) - 1;
+            if (from > to) {
+                return;
+            }
+            try {
+                HttpResponse<Long> response = send(request(uri).header("Range", "bytes=" + from + "-" + to).build(),
+                        info -> info.statusCode() == 206
+                                ? new ChannelSubscriber(channel, from, to + 1, written -> progress.advance(part, written, channel))
+                                : BodySubscribers.replacing(0L));
+                if (response.statusCode() != 206) {
+                    throw new IOException("Expected HTTP 206 for bytes " + from + "-" + to + " of " + uri + " but got " + response.statusCode());
+                }
+                if (progress.remaining(part) > 0) {
+                    throw new IOException("Range " + from + "-" + to + " of " + uri + " ended early");
+                }
+                return;
+            } catch (IOException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                ltLogger.warn("Retrying part {} of {} after attempt {} failed :- {}", part, uri, attempt, e.toString());
+            }
+        }
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            requestSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a download slot");
+        }
+        try {
+            return client.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while downloading " + request.uri());
+        } finally {
+            requestSlots.release();
+        }
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).GET();
+        headers.forEach(builder::header);
+        return builder;
+    }
+
+    private static long totalLength(HttpResponse<?> response, URI uri) throws IOException {
+        String contentRange = response.headers().firstValue("Content-Range").orElse("");
+        int slash = contentRange.lastIndexOf('/');
+        try {
+            return Long.parseLong(contentRange.substring(slash + 1).trim());
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IOException("Cannot determine the size of " + uri + " from Content-Range '" + contentRange + "'");
+        }
+    }
+
+    private static void truncate(FileChannel channel, long size) {
+        try {
+            channel.truncate(size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += HASH_CHUNK_SIZE) {
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(HASH_CHUNK_SIZE, size - position)));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static Path sibling(Path target, String suffix) {
+        return target.resolveSibling(target.getFileName() + suffix);
+    }
+
+    /**
+     * Writes each received buffer to the file at its offset, without copying it into an intermediate array.
+     */
+    private static final class ChannelSubscriber implements BodySubscriber<Long> {
+        private final FileChannel channel;
+        private final long limit;
+        private final LongConsumer onWritten;
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+        private long position;
+        private long written;
+
+        private ChannelSubscriber(FileChannel channel, long position, long limit, LongConsumer onWritten) {
+            this.channel = channel;
+            this.position = position;
+            this.limit = limit;
+            this.onWritten = onWritten;
+        }
+
+        @Override
+        public CompletionStage<Long> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    int length = buffer.remaining();
+                    if (position + length > limit) {
+                        throw new IOException("Server sent more bytes than the requested range");
+                    }
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                    written += length;
+                    onWritten.accept(length);
+                }
+                subscription.request(1);
+            } catch (IOException | UncheckedIOException e) {
+                subscription.cancel();
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(written);
+        }
+    }
+
+    /**
+     * Tracks how many bytes of each range are on disk, and persists that so a download can be resumed.
+     */
+    private static final class Progress {
+        private final Path file;
+        private final long length;
+        private final String validator;
+        private final long partSize;
+        private final AtomicLongArray done;
+        private final AtomicLong unsaved = new AtomicLong();
+
+        private Progress(Path file, long length, String validator, int parts) {
+            this.file = file;
+            this.length = length;
+            this.validator = validator;
+            this.partSize = (length + parts - 1) / parts;
+            this.done = new AtomicLongArray(parts);
+        }
+
+        private int parts() {
+            return done.length();
+        }
+
+        private long end(int part) {
+            return Math.min(length, (part + 1) * partSize);
+        }
+
+        private long position(int part) {
+            return part * partSize + done.get(part);
+        }
+
+        private long remaining(int part) {
+            return end(part) - position(part);
+        }
+
+        private long completed() {
+            long total = 0;
+            for (int part = 0; part < parts(); part++) {
+                total += done.get(part);
+            }
+            return total;
+        }
+
+        private boolean matches(long length, String validator) {
+            return this.length == length && this.validator.equals(validator);
+        }
+
+        private boolean isOnDisk(long fileSize) {
+            for (int part = 0; part < parts(); part++) {
+                if (done.get(part) > 0 && position(part) > fileSize) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void advance(int part, long bytes, FileChannel channel) {
+            done.addAndGet(part, bytes);
+            if (unsaved.addAndGet(bytes) >= PROGRESS_SAVE_INTERVAL) {
+                unsaved.set(0);
+                try {
+                    // Data must reach the disk before the progress file claims it did
+                    channel.force(false);
+                    save();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private synchronized void save() throws IOException {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(PROGRESS_MAGIC);
+                out.writeByte(PROGRESS_VERSION);
+                out.writeLong(length);
+                out.writeUTF(validator);
+                out.writeInt(parts());
+                for (int part = 0; part < parts(); part++) {
+                    out.writeLong(done.get(part));
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private static Progress load(Path file) {
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != PROGRESS_MAGIC || in.readByte() != PROGRESS_VERSION) {
+                    return null;
+                }
+                long length = in.readLong();
+                String validator = in.readUTF();
+                Progress progress = new Progress(file, length, validator, in.readInt());
+                for (int part = 0; part < progress.parts(); part++) {
+                    long bytes = in.readLong();
+                    if (bytes < 0 || part * progress.partSize + bytes > progress.end(part)) {
+                        return null;
+                    }
+                    progress.done.set(part, bytes);
+                }
+                return progress;
+            } catch (IOException | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -3,9 +3,12 @@ package artifacts;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import utility.Constant;
+import utility.EventJournal;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -32,6 +35,8 @@ public class Artifacts extends Constant {
      * @param command A list of strings representing the command and its arguments.
      */
     public void processCommand(List<String> command) {
+        long start = System.nanoTime();
+        int exitCode = -1;
         try {
             // Initialize a ProcessBuilder with the command list.
             ProcessBuilder processBuilder = new ProcessBuilder(command);
@@ -51,7 +56,7 @@ public class Artifacts extends Constant {
             }
 
             // Wait for the process to complete and log the exit code.
-            int exitCode = process.waitFor();
+            exitCode = process.waitFor();
             if (exitCode != 0) {
                 ltLogger.info("Exited with code: {}", exitCode);
             }
@@ -59,6 +64,29 @@ public class Artifacts extends Constant {
         } catch (Exception e) {
             // Log any exceptions that occur during the command execution.
             ltLogger.error(e);
+        } finally {
+            if (EventJournal.current() != null) {
+                EventJournal.log(EventJournal.Source.ARTIFACTS, "processCommand", scriptName(command), null, start, exitCode == 0, exitCode);
+            }
+        }
+    }
+
+
+    /**
+     * Names the script of a command for the event journal; never throws, so it cannot hide the command's own failure.
+     *
+     * @param command The command and its arguments.
+     * @return The file name of the command's executable, or null if there is none.
+     */
+    private static String scriptName(List<String> command) {
+        if (command == null || command.isEmpty() || command.get(0) == null) {
+            return null;
+        }
+        try {
+            Path fileName = Path.of(command.get(0)).getFileName();
+            return fileName == null ? command.get(0) : fileName.toString();
+        } catch (InvalidPathException e) {
+            return command.get(0);
         }
     }
 
@@ -0,0 +1,113 @@
+package artifacts;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * The DownloadResult class holds the outcome of one artifact download made by {@link ArtifactDownloader}.
+ */
+public class DownloadResult {
+    private final URI uri;
+    private final Path target;
+    private final long size;
+    private final int parts;
+    private final long resumedBytes;
+    private final Duration elapsed;
+    private final Throwable failure;
+
+    /**
+     * Constructs a DownloadResult.
+     *
+     * @param uri          The artifact URI.
+     * @param target       The file the artifact was written to.
+     * @param size         The size of the artifact in bytes, or -1 if the download failed before it was known.
+     * @param parts        The number of ranged requests the artifact was split into.
+     * @param resumedBytes The bytes taken over from an earlier, interrupted download.
+     * @param elapsed      The wall-clock time of the download.
+     * @param failure      The failure that stopped the download, or null on success.
+     */
+    public DownloadResult(URI uri, Path target, long size, int parts, long resumedBytes, Duration elapsed, Throwable failure) {
+        this.uri = uri;
+        this.target = target;
+        this.size = size;
+        this.parts = parts;
+        this.resumedBytes = resumedBytes;
+        this.elapsed = elapsed;
+        this.failure = failure;
+    }
+
+    /**
+     * @return The artifact URI.
+     */
+    public URI getUri() {
+        return uri;
+    }
+
+    /**
+     * @return The file the artifact was written to.
+     */
+    public Path getTarget() {
+        return target;
+    }
+
+    /**
+     * @return The size of the artifact in bytes, or -1 if the download failed before it was known.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return The number of ranged requests the artifact was split into; 1 if the server does not support ranges.
+     */
+    public int getParts() {
+        return parts;
+    }
+
+    /**
+     * @return The bytes taken over from an earlier, interrupted download instead of being fetched again.
+     */
+    public long getResumedBytes() {
+        return resumedBytes;
+    }
+
+    /**
+     * @return The wall-clock time of the download.
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * @return true if the artifact was downloaded and verified.
+     */
+    public boolean isSuccessful() {
+        return failure == null;
+    }
+
+    /**
+     * @return The failure, or null if the download succeeded.
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return The download throughput in megabytes per second, or 0 if nothing was fetched.
+     */
+    public double getThroughputMBps() {
+        double seconds = elapsed.toNanos() / 1e9;
+        long fetched = size - resumedBytes;
+        return size <= 0 || seconds <= 0 ? 0 : fetched / 1_048_576.0 / seconds;
+    }
+
+    @Override
+    public String toString() {
+        if (failure != null) {
+            return String.format("%s -> %s failed after %d ms :- %s", uri, target, elapsed.toMillis(), failure);
+        }
+        return String.format("%s -> %s %d bytes in %d part(s), %d resumed, %d ms (%.1f MB/s)",
+                uri, target, size, parts, resumedBytes, elapsed.toMillis(), getThroughputMBps());
+    }
+}
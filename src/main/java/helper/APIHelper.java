@@ -5,7 +5,13 @@ import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import org.apache.logging.log4j.*;
+import utility.EventJournal;
+import utility.TestTimings;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.Map;
 
 /**
@@ -15,6 +21,10 @@ import java.util.Map;
  */
 public class APIHelper {
     private final Logger ltLogger = LogManager.getLogger(APIHelper.class);
+    private ResponseCache responseCache;
+    private SingleFlight<String, Response> requestCoalescer;
+    private AdaptiveRateLimiter rateLimiter;
+    private HttpTape httpTape;
 
     /**
      * Default constructor for the APIHelper class.
@@ -47,7 +57,32 @@ public class APIHelper {
 
         ltLogger.info("Hitting Method :- {} on URI :- {} with Body :- {}, Headers :- {}, Query Param :- {} and Content Type :- {} and Expected Status is :- {}",
                 method, uri, body, headers, queryParam, contentType, expectedStatus);
+        return send(method, uri, body, contentType, headers, queryParam, expectedStatus, true);
+    }
 
+    /**
+     * Sends one request as {@link #httpMethod} does, without logging it. {@link LoadGenerator} sends its requests
+     * here with {@code sharedGets} off, so GET load reaches the server instead of the response cache or an
+     * identical request already in flight.
+     *
+     * @param method          The HTTP method (GET, POST, PUT, DELETE, etc.).
+     * @param uri             The URI of the API endpoint.
+     * @param body            The request body as a string.
+     * @param contentType     The content type of the request (e.g., JSON, XML).
+     * @param headers         A map of headers to include in the request.
+     * @param queryParam      A map of query parameters to include in the request.
+     * @param expectedStatus  The expected HTTP status code of the response.
+     * @param sharedGets      Whether GETs may be served by the response cache and request coalescer.
+     * @return                The Response object containing the response data.
+     */
+    Response send(String method,
+                  String uri,
+                  String body,
+                  ContentType contentType,
+                  Map<String, Object> headers,
+                  Map<String, Object> queryParam,
+                  int expectedStatus,
+                  boolean sharedGets) {
         // Initialize the request specification
         RequestSpecification req = RestAssured.given();
         if (headers != null)
@@ -62,16 +97,201 @@ public class APIHelper {
             req.contentType(contentType);
         }
 
+        // The tape goes first so replayed requests never wait on the rate limiter
+        if (httpTape != null) {
+            req.filter(httpTape);
+        }
+        if (rateLimiter != null) {
+            req.filter(rateLimiter);
+        }
+
         // Execute the request based on the method and verify the expected status code
-        return switch (method) {
-            case "GET" -> req.get(uri).then().statusCode(expectedStatus).extract().response();
-            case "GET_REDIRECT" -> req.redirects().follow(false).get(uri).then().extract().response();
-            case "GET_WITHOUT_STATUS_CODE_VERIFICATION" -> req.get(uri);
-            case "POST" -> req.post(uri).then().statusCode(expectedStatus).extract().response();
-            case "PUT" -> req.put(uri).then().statusCode(expectedStatus).extract().response();
-            case "DELETE" -> req.delete(uri).then().statusCode(expectedStatus).extract().response();
-            case "PATCH" -> req.patch(uri).then().statusCode(expectedStatus).extract().response();
-            default -> null;
-        };
+        long start = System.nanoTime();
+        Response response = null;
+        boolean successful = false;
+        try {
+            // The raw response is kept before the status check, so a failed check still journals the real status code
+            response = switch (method) {
+                case "GET", "GET_WITHOUT_STATUS_CODE_VERIFICATION" -> sharedGets ? executeGet(req, uri, headers, queryParam) : req.get(uri);
+                case "GET_REDIRECT" -> req.redirects().follow(false).get(uri);
+                case "POST" -> req.post(uri);
+                case "PUT" -> req.put(uri);
+                case "DELETE" -> req.delete(uri);
+                case "PATCH" -> req.patch(uri);
+                default -> null;
+            };
+            switch (method) {
+                case "GET", "POST", "PUT", "DELETE", "PATCH" -> response.then().statusCode(expectedStatus);
+                default -> {
+                }
+            }
+            successful = response != null;
+            return response;
+        } finally {
+            TestTimings.record(TestTimings.Category.API, start);
+            EventJournal.log(EventJournal.Source.API, method, uri, null, start, successful, response == null ? 0 : response.getStatusCode());
+        }
+    }
+
+    /**
+     * Extracts only the given JSON paths from a response body in a single streaming pass, without
+     * materializing the whole document as {@code Response.jsonPath()} does.
+     *
+     * @param response The response whose body is JSON.
+     * @param paths    The dotted JSON paths to extract, for example "data.session_id" or "items[0].name".
+     * @return         A map from each path found to its typed value.
+     */
+    public Map<String, Object> extractJson(Response response, String... paths) {
+        return extractJson(response, JsonPathExtractor.compile(paths));
+    }
+
+    /**
+     * Extracts the paths of a pre-compiled extractor from a response body in a single streaming pass.
+     * Compile the extractor once and reuse it when the same fields are read from many responses.
+     *
+     * @param response  The response whose body is JSON.
+     * @param extractor The compiled extractor.
+     * @return          A map from each path found to its typed value.
+     */
+    public Map<String, Object> extractJson(Response response, JsonPathExtractor extractor) {
+        try (InputStream body = response.asInputStream()) {
+            return extractor.extract(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read response body", e);
+        }
+    }
+
+    /**
+     * Executes an idempotent GET, serving it from the response cache when one is enabled and
+     * joining an identical in-flight request when coalescing is enabled.
+     *
+     * @param req        The prepared request specification.
+     * @param uri        The URI of the API endpoint.
+     * @param headers    The request headers, used for the cache and coalescing keys.
+     * @param queryParam The query parameters, used for the cache and coalescing keys.
+     * @return           The Response object containing the response data.
+     */
+    private Response executeGet(RequestSpecification req, String uri, Map<String, Object> headers, Map<String, Object> queryParam) {
+        if (requestCoalescer == null) {
+            return fetchGet(req, uri, headers, queryParam);
+        }
+        return requestCoalescer.execute(RequestKey.of(uri, headers, queryParam), () -> {
+            Response response = fetchGet(req, uri, headers, queryParam);
+            // Buffer the body so every joined caller can read it
+            response.asByteArray();
+            return response;
+        });
+    }
+
+    private Response fetchGet(RequestSpecification req, String uri, Map<String, Object> headers, Map<String, Object> queryParam) {
+        if (responseCache == null) {
+            return req.get(uri);
+        }
+        return responseCache.get(responseCache.key(uri, headers, queryParam), req, uri);
+    }
+
+    /**
+     * Enables an in-memory response cache for GET requests made through {@link #httpMethod}.
+     * The same cache instance may be shared between several APIHelper instances.
+     *
+     * @param responseCache The cache to use, or null to disable caching.
+     */
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Returns the response cache in use, for inspecting hit, miss and revalidation counters.
+     *
+     * @return The ResponseCache, or null if caching is disabled.
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Enables single-flight coalescing of identical GET requests made through {@link #httpMethod}.
+     * Share one coalescer between the APIHelper instances of parallel threads so their requests can be joined.
+     *
+     * @param requestCoalescer The coalescer to use, or null to disable coalescing.
+     */
+    public void setRequestCoalescer(SingleFlight<String, Response> requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    /**
+     * Returns the request coalescer in use, for inspecting the number of requests saved.
+     *
+     * @return The SingleFlight coalescer, or null if coalescing is disabled.
+     */
+    public SingleFlight<String, Response> getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    /**
+     * Enables per-host rate limiting and adaptive concurrency control for every request sent over the network
+     * by {@link #httpMethod}. Share one limiter between the APIHelper instances of parallel threads.
+     *
+     * @param rateLimiter The limiter to use, or null to disable limiting.
+     */
+    public void setRateLimiter(AdaptiveRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Returns the rate limiter in use, for inspecting per-host limits and backoffs.
+     *
+     * @return The AdaptiveRateLimiter, or null if limiting is disabled.
+     */
+    public AdaptiveRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Records requests made through {@link #httpMethod} to an on-disk tape, or replays them from it,
+     * depending on the tape's mode.
+     *
+     * @param httpTape The tape to use, or null to always use the network.
+     */
+    public void setHttpTape(HttpTape httpTape) {
+        this.httpTape = httpTape;
+    }
+
+    /**
+     * Returns the HTTP tape in use, for inspecting recorded and replayed counts.
+     *
+     * @return The HttpTape, or null if recording and replay are disabled.
+     */
+    public HttpTape getHttpTape() {
+        return httpTape;
+    }
+
+    /**
+     * Drives an open-model load against the endpoint at a constant rate, using the same request definition
+     * as {@link #httpMethod}. Latency is recorded against each request's intended send time. Requests are not
+     * logged one by one, and GETs bypass the response cache and request coalescer so that every one reaches the server.
+     *
+     * @param method            The HTTP method (GET, POST, PUT, DELETE, etc.).
+     * @param uri               The URI of the API endpoint.
+     * @param body              The request body as a string.
+     * @param contentType       The content type of the request (e.g., JSON, XML).
+     * @param headers           A map of headers to include in the request.
+     * @param queryParam        A map of query parameters to include in the request.
+     * @param expectedStatus    The expected HTTP status code of the response.
+     * @param requestsPerSecond The target rate in requests per second.
+     * @param duration          How long to keep issuing requests.
+     * @return                  The LoadResult with throughput, error rate and latency histogram.
+     */
+    public LoadResult loadTest(String method,
+                               String uri,
+                               String body,
+                               ContentType contentType,
+                               Map<String, Object> headers,
+                               Map<String, Object> queryParam,
+                               int expectedStatus,
+                               double requestsPerSecond,
+                               Duration duration) {
+        return new LoadGenerator(this).run(method, uri, body, contentType, headers, queryParam, expectedStatus,
+                requestsPerSecond, duration);
     }
 }
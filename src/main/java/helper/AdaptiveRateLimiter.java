@@ -0,0 +1,261 @@
+package helper;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The AdaptiveRateLimiter class throttles requests per host with a token bucket and an adaptive
+ * concurrency limit. The concurrency limit grows by one request per round of successful responses and is
+ * cut multiplicatively on 429, 5xx, connection failures, or when latency climbs well above the best
+ * latency seen (AIMD). Waiting callers are admitted strictly in arrival order.
+ * It is applied as a RestAssured filter, so cached responses never consume a permit.
+ */
+public class AdaptiveRateLimiter implements Filter {
+    private final Logger ltLogger = LogManager.getLogger(AdaptiveRateLimiter.class);
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVER_ERROR = 500;
+    private static final String RETRY_AFTER = "Retry-After";
+
+    private final double requestsPerSecond;
+    private final int burst;
+    private final int initialConcurrency;
+    private final int maxConcurrency;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an AdaptiveRateLimiter with a backoff ratio of 0.5 and a latency tolerance of 2x.
+     *
+     * @param requestsPerSecond  The sustained request rate allowed per host.
+     * @param burst              The number of requests that may be sent back-to-back after an idle period.
+     * @param initialConcurrency The starting concurrency limit per host.
+     * @param maxConcurrency     The highest concurrency limit the limiter may grow to.
+     */
+    public AdaptiveRateLimiter(double requestsPerSecond, int burst, int initialConcurrency, int maxConcurrency) {
+        this(requestsPerSecond, burst, initialConcurrency, maxConcurrency, 0.5, 2.0);
+    }
+
+    /**
+     * Constructs an AdaptiveRateLimiter.
+     *
+     * @param requestsPerSecond  The sustained request rate allowed per host.
+     * @param burst              The number of requests that may be sent back-to-back after an idle period.
+     * @param initialConcurrency The starting concurrency limit per host.
+     * @param maxConcurrency     The highest concurrency limit the limiter may grow to.
+     * @param backoffRatio       The factor applied to the concurrency limit on overload, between 0 and 1.
+     * @param latencyTolerance   How many times the best observed latency is tolerated before backing off.
+     */
+    public AdaptiveRateLimiter(double requestsPerSecond, int burst, int initialConcurrency, int maxConcurrency,
+                               double backoffRatio, double latencyTolerance) {
+        if (requestsPerSecond <= 0 || burst < 1 || initialConcurrency < 1 || maxConcurrency < initialConcurrency) {
+            throw new IllegalArgumentException("Invalid rate limiter settings: rate=" + requestsPerSecond + ", burst=" + burst
+                    + ", initialConcurrency=" + initialConcurrency + ", maxConcurrency=" + maxConcurrency);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1 || latencyTolerance <= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be in (0, 1) and latency tolerance above 1");
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.initialConcurrency = initialConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        HostState state = hosts.computeIfAbsent(hostOf(requestSpec.getURI()), HostState::new);
+        state.acquire();
+        long startNanos = System.nanoTime();
+        Response response = null;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            return response;
+        } finally {
+            state.release(response, System.nanoTime() - startNanos);
+        }
+    }
+
+    private static String hostOf(String uri) {
+        try {
+            URI parsed = URI.create(uri);
+            return parsed.getPort() == -1 ? parsed.getHost() : parsed.getHost() + ":" + parsed.getPort();
+        } catch (IllegalArgumentException e) {
+            return uri;
+        }
+    }
+
+    /**
+     * Returns the current concurrency limit for a host.
+     *
+     * @param host The host name, with ":port" when the URI carried an explicit port.
+     * @return The limit, or the initial limit if the host has not been contacted yet.
+     */
+    public int getConcurrencyLimit(String host) {
+        HostState state = hosts.get(host);
+        return state == null ? initialConcurrency : state.currentLimit();
+    }
+
+    /**
+     * Returns the number of times a host signalled overload and the limit was cut.
+     *
+     * @param host The host name, with ":port" when the URI carried an explicit port.
+     * @return The number of backoffs.
+     */
+    public long getBackoffs(String host) {
+        HostState state = hosts.get(host);
+        return state == null ? 0 : state.backoffs;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder("AdaptiveRateLimiter{");
+        hosts.values().forEach(state -> summary.append(state).append(' '));
+        return summary.append('}').toString();
+    }
+
+    private class HostState {
+        private final String host;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition admitted = lock.newCondition();
+        private final long intervalNanos = (long) (1_000_000_000L / requestsPerSecond);
+
+        private long nextTicket;
+        private long servingTicket;
+        private int inFlight;
+        private double limit = initialConcurrency;
+        private long nextFreeNanos = System.nanoTime();
+        private long minLatencyNanos = Long.MAX_VALUE;
+        private double smoothedLatencyNanos;
+        private long lastBackoffNanos;
+        private volatile long backoffs;
+        private long totalWaitNanos;
+
+        private HostState(String host) {
+            this.host = host;
+        }
+
+        private void acquire() {
+            long arrivalNanos = System.nanoTime();
+            long tokenWaitNanos;
+            lock.lock();
+            try {
+                long ticket = nextTicket++;
+                while (ticket != servingTicket || inFlight >= (int) limit) {
+                    admitted.awaitUninterruptibly();
+                }
+                servingTicket++;
+                inFlight++;
+                admitted.signalAll();
+
+                // Reserve the next token; idle time accrues up to `burst` tokens of credit
+                long now = System.nanoTime();
+                long earliest = Math.max(nextFreeNanos, now - (burst - 1) * intervalNanos);
+                tokenWaitNanos = Math.max(0, earliest - now);
+                nextFreeNanos = earliest + intervalNanos;
+            } finally {
+                lock.unlock();
+            }
+
+            while (tokenWaitNanos > 0) {
+                long wakeNanos = System.nanoTime() + tokenWaitNanos;
+                LockSupport.parkNanos(tokenWaitNanos);
+                tokenWaitNanos = wakeNanos - System.nanoTime();
+            }
+
+            lock.lock();
+            try {
+                totalWaitNanos += System.nanoTime() - arrivalNanos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void release(Response response, long latencyNanos) {
+            lock.lock();
+            try {
+                inFlight--;
+                int status = response == null ? -1 : response.getStatusCode();
+                boolean rejected = response == null || status == TOO_MANY_REQUESTS || status >= SERVER_ERROR;
+                boolean slow = false;
+                if (!rejected) {
+                    // Only served requests feed the latency baseline; rejections are fast and would skew it.
+                    // The baseline drifts slowly towards current latency so one lucky fast response does not pin it.
+                    minLatencyNanos = latencyNanos < minLatencyNanos ? latencyNanos : minLatencyNanos + (latencyNanos - minLatencyNanos) / 100;
+                    smoothedLatencyNanos = smoothedLatencyNanos == 0 ? latencyNanos : smoothedLatencyNanos * 0.8 + latencyNanos * 0.2;
+                    slow = smoothedLatencyNanos > minLatencyNanos * latencyTolerance;
+                }
+
+                boolean overloaded = rejected || slow;
+                long now = System.nanoTime();
+                if (overloaded) {
+                    // Back off at most once per smoothed round-trip so one burst of errors is one signal.
+                    // nanoTime has an arbitrary origin, so the first backoff cannot be timed against an unset field.
+                    if (backoffs == 0 || now - lastBackoffNanos > smoothedLatencyNanos) {
+                        limit = Math.max(1, limit * backoffRatio);
+                        lastBackoffNanos = now;
+                        backoffs++;
+                        ltLogger.warn("Host {} overloaded (status {}, latency {} ms), concurrency limit cut to {}",
+                                host, status, TimeUnit.NANOSECONDS.toMillis(latencyNanos), (int) limit);
+                    }
+                    if (status == TOO_MANY_REQUESTS) {
+                        pauseFor(response.getHeader(RETRY_AFTER), now);
+                    }
+                } else {
+                    limit = Math.min(maxConcurrency, limit + 1 / limit);
+                }
+                admitted.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void pauseFor(String retryAfter, long now) {
+            if (retryAfter == null) {
+                return;
+            }
+            try {
+                long pauseNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter.trim()));
+                nextFreeNanos = Math.max(nextFreeNanos, now + pauseNanos);
+                ltLogger.warn("Host {} asked to retry after {} s, pausing new requests", host, retryAfter.trim());
+            } catch (NumberFormatException e) {
+                ltLogger.debug("Ignoring non-numeric Retry-After :- {}", retryAfter);
+            }
+        }
+
+        private int currentLimit() {
+            lock.lock();
+            try {
+                return (int) limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public String toString() {
+            lock.lock();
+            try {
+                return host + "[limit=" + (int) limit + ", inFlight=" + inFlight + ", backoffs=" + backoffs
+                        + ", waitMs=" + TimeUnit.NANOSECONDS.toMillis(totalWaitNanos) + "]";
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
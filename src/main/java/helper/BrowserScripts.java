@@ -0,0 +1,177 @@
+package helper;
+
+/**
+ * The BrowserScripts class holds the JavaScript snippets that WebDriverHelper runs inside the page.
+ * Keeping them here keeps the Java helpers readable and lets the scripts be reviewed in one place.
+ */
+public final class BrowserScripts {
+
+  private BrowserScripts() {
+  }
+
+  /**
+   * Installs the readiness tracker on the current page, once. It records the time of the last DOM mutation
+   * or network completion and counts in-flight fetch and XMLHttpRequest calls.
+   */
+  public static final String INSTALL_READINESS_TRACKER = """
+      (function () {
+        if (window.__ltqaReadiness) { return; }
+        var r = window.__ltqaReadiness = { inFlight: 0, lastActivity: Date.now() };
+        var touch = function () { r.lastActivity = Date.now(); };
+        new MutationObserver(touch).observe(document, { subtree: true, childList: true, attributes: true, characterData: true });
+        if (window.fetch) {
+          var originalFetch = window.fetch;
+          window.fetch = function () {
+            r.inFlight++;
+            var settle = function () { r.inFlight--; touch(); };
+            return originalFetch.apply(this, arguments).then(
+              function (response) { settle(); return response; },
+              function (error) { settle(); throw error; });
+          };
+        }
+        if (window.XMLHttpRequest) {
+          var originalSend = XMLHttpRequest.prototype.send;
+          XMLHttpRequest.prototype.send = function () {
+            r.inFlight++;
+            this.addEventListener('loadend', function () { r.inFlight--; touch(); });
+            return originalSend.apply(this, arguments);
+          };
+        }
+      })();
+      """;
+
+  /**
+   * Asynchronous script that completes once the document has loaded, no tracked request is in flight and the
+   * DOM has been quiet for {@code arguments[0]} milliseconds. Installs the tracker first if the page does not
+   * have it yet, so no separate install call is needed.
+   */
+  public static final String AWAIT_READINESS = INSTALL_READINESS_TRACKER + """
+      var quietMillis = arguments[0];
+      var done = arguments[arguments.length - 1];
+      var r = window.__ltqaReadiness;
+      (function check() {
+        var idleFor = Date.now() - r.lastActivity;
+        if (document.readyState === 'complete' && r.inFlight <= 0 && idleFor >= quietMillis) {
+          done(true);
+        } else {
+          setTimeout(check, Math.max(10, Math.min(50, quietMillis - idleFor)));
+        }
+      })();
+      """;
+
+  /**
+   * Evaluates a list of element expectations in one call. {@code arguments[0]} is a list of
+   * {using, value, kind, attribute} objects; the result is a list of {found, actual} objects in the same order.
+   */
+  public static final String INSPECT_ELEMENTS = """
+      var locate = function (using, value) {
+        switch (using) {
+          case 'id': return document.getElementById(value);
+          case 'class': return document.getElementsByClassName(value)[0] || null;
+          case 'name': return document.getElementsByName(value)[0] || null;
+          case 'css': return document.querySelector(value);
+          case 'tagname': return document.getElementsByTagName(value)[0] || null;
+          case 'xpath': return document.evaluate(value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+          default: throw new Error('Unsupported locator strategy: ' + using);
+        }
+      };
+      var isVisible = function (element) {
+        var style = window.getComputedStyle(element);
+        return style.display !== 'none' && style.visibility !== 'hidden' && element.getClientRects().length > 0;
+      };
+      return arguments[0].map(function (expectation) {
+        var element;
+        try {
+          element = locate(expectation.using, expectation.value);
+        } catch (e) {
+          return { found: false, actual: String(e) };
+        }
+        if (!element) {
+          return { found: false, actual: null };
+        }
+        switch (expectation.kind) {
+          case 'TEXT':
+            // Rendered text only, like WebElement.getText(): hidden elements give ''
+            return { found: true, actual: (typeof element.innerText === 'string' ? element.innerText : '').trim() };
+          case 'ATTRIBUTE':
+            var value = element.getAttribute(expectation.attribute);
+            if (value === null && expectation.attribute in element && element[expectation.attribute] != null) {
+              value = String(element[expectation.attribute]);
+            }
+            return { found: true, actual: value };
+          default:
+            return { found: true, actual: String(isVisible(element)) };
+        }
+      });
+      """;
+
+  /**
+   * Measures how long a locator takes to evaluate in the page and derives cheaper equivalents for the element
+   * it finds: its id, its name and a short unique CSS path, each kept only if it finds exactly that element.
+   * {@code arguments} are the strategy, the value and the time budget per measurement in milliseconds.
+   * The result is null if the locator finds nothing, otherwise {original, candidates: [{using, value, micros}]}
+   * with times in microseconds per evaluation.
+   */
+  public static final String PROFILE_LOCATOR = """
+      var using = arguments[0], value = arguments[1], budget = arguments[2];
+      var locate = function (using, value) {
+        switch (using) {
+          case 'id': return document.getElementById(value);
+          case 'class': return document.getElementsByClassName(value)[0] || null;
+          case 'name': return document.getElementsByName(value)[0] || null;
+          case 'css': return document.querySelector(value);
+          case 'tagname': return document.getElementsByTagName(value)[0] || null;
+          case 'xpath': return document.evaluate(value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+          default: throw new Error('Unsupported locator strategy: ' + using);
+        }
+      };
+      var time = function (using, value) {
+        // Repeat until the budget is spent; browsers coarsen performance.now() to as much as 1 ms
+        var runs = 0, start = performance.now(), elapsed;
+        do {
+          locate(using, value);
+          runs++;
+          elapsed = performance.now() - start;
+        } while (elapsed < budget && runs < 10000);
+        return elapsed * 1000 / runs;
+      };
+      var element = locate(using, value);
+      if (!element) { return null; }
+      var unique = function (selector) {
+        var matches = document.querySelectorAll(selector);
+        return matches.length === 1 && matches[0] === element;
+      };
+      var cssPath = function () {
+        var parts = [];
+        for (var node = element; node && node.nodeType === 1; node = node.parentElement) {
+          if (node.id && document.querySelectorAll('#' + CSS.escape(node.id)).length === 1) {
+            parts.unshift('#' + CSS.escape(node.id));
+          } else {
+            var part = node.tagName.toLowerCase();
+            Array.prototype.slice.call(node.classList, 0, 2).forEach(function (name) { part += '.' + CSS.escape(name); });
+            var parent = node.parentElement;
+            if (parent) {
+              var sameTag = Array.prototype.filter.call(parent.children, function (sibling) { return sibling.tagName === node.tagName; });
+              if (sameTag.length > 1) { part += ':nth-of-type(' + (sameTag.indexOf(node) + 1) + ')'; }
+            }
+            parts.unshift(part);
+          }
+          var selector = parts.join(' > ');
+          if (unique(selector)) { return selector; }
+          if (parts[0].charAt(0) === '#') { return null; }
+        }
+        return null;
+      };
+      var candidates = [];
+      var consider = function (candidateUsing, candidateValue) {
+        if (candidateValue && !(candidateUsing === using && candidateValue === value)) {
+          candidates.push({ using: candidateUsing, value: candidateValue, micros: time(candidateUsing, candidateValue) });
+        }
+      };
+      if (element.id && unique('#' + CSS.escape(element.id))) { consider('id', element.id); }
+      var name = element.getAttribute('name');
+      if (name && document.getElementsByName(name).length === 1) { consider('name', name); }
+      consider('css', cssPath());
+      return { original: time(using, value), candidates: candidates };
+      """;
+}
@@ -0,0 +1,167 @@
+package helper;
+
+import org.openqa.selenium.*;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The CachedElement class wraps a WebElement handed out by the {@link ElementCache}. Every call is delegated
+ * to the wrapped element; if the element has gone stale (the page re-rendered it or navigated away), it is
+ * located again with the original locator and the call is retried once.
+ */
+public class CachedElement implements WebElement, WrapsElement {
+  private final Supplier<WebElement> finder;
+  private final Runnable onRefind;
+  private volatile WebElement element;
+
+  /**
+   * Constructs a CachedElement around an already located element.
+   *
+   * @param element  The located element.
+   * @param finder   Locates the element again when the current reference is stale.
+   * @param onRefind Invoked each time the element had to be located again.
+   */
+  public CachedElement(WebElement element, Supplier<WebElement> finder, Runnable onRefind) {
+    this.element = element;
+    this.finder = finder;
+    this.onRefind = onRefind;
+  }
+
+  private <T> T call(Supplier<T> action) {
+    try {
+      return action.get();
+    } catch (StaleElementReferenceException e) {
+      element = finder.get();
+      onRefind.run();
+      return action.get();
+    }
+  }
+
+  private void run(Runnable action) {
+    call(() -> {
+      action.run();
+      return null;
+    });
+  }
+
+  @Override
+  public WebElement getWrappedElement() {
+    return element;
+  }
+
+  @Override
+  public void click() {
+    run(() -> element.click());
+  }
+
+  @Override
+  public void submit() {
+    run(() -> element.submit());
+  }
+
+  @Override
+  public void sendKeys(CharSequence... keysToSend) {
+    run(() -> element.sendKeys(keysToSend));
+  }
+
+  @Override
+  public void clear() {
+    run(() -> element.clear());
+  }
+
+  @Override
+  public String getTagName() {
+    return call(() -> element.getTagName());
+  }
+
+  @Override
+  public String getDomProperty(String name) {
+    return call(() -> element.getDomProperty(name));
+  }
+
+  @Override
+  public String getDomAttribute(String name) {
+    return call(() -> element.getDomAttribute(name));
+  }
+
+  @Override
+  public String getAttribute(String name) {
+    return call(() -> element.getAttribute(name));
+  }
+
+  @Override
+  public String getAriaRole() {
+    return call(() -> element.getAriaRole());
+  }
+
+  @Override
+  public String getAccessibleName() {
+    return call(() -> element.getAccessibleName());
+  }
+
+  @Override
+  public boolean isSelected() {
+    return call(() -> element.isSelected());
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return call(() -> element.isEnabled());
+  }
+
+  @Override
+  public String getText() {
+    return call(() -> element.getText());
+  }
+
+  @Override
+  public List<WebElement> findElements(By by) {
+    return call(() -> element.findElements(by));
+  }
+
+  @Override
+  public WebElement findElement(By by) {
+    return call(() -> element.findElement(by));
+  }
+
+  @Override
+  public SearchContext getShadowRoot() {
+    return call(() -> element.getShadowRoot());
+  }
+
+  @Override
+  public boolean isDisplayed() {
+    return call(() -> element.isDisplayed());
+  }
+
+  @Override
+  public Point getLocation() {
+    return call(() -> element.getLocation());
+  }
+
+  @Override
+  public Dimension getSize() {
+    return call(() -> element.getSize());
+  }
+
+  @Override
+  public Rectangle getRect() {
+    return call(() -> element.getRect());
+  }
+
+  @Override
+  public String getCssValue(String propertyName) {
+    return call(() -> element.getCssValue(propertyName));
+  }
+
+  @Override
+  public <X> X getScreenshotAs(OutputType<X> target) throws WebDriverException {
+    return call(() -> element.getScreenshotAs(target));
+  }
+
+  @Override
+  public String toString() {
+    return "CachedElement{" + element + "}";
+  }
+}
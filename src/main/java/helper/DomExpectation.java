@@ -0,0 +1,127 @@
+package helper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The DomExpectation class describes one expected property of an element — its text, an attribute value or its
+ * visibility — for checking many elements in a single browser round-trip with
+ * {@link WebDriverHelper#assertElements}.
+ */
+public class DomExpectation {
+
+  /**
+   * The property of the element being checked.
+   */
+  public enum Kind {
+    /** The element's visible text, trimmed. */
+    TEXT,
+    /** The value of a named attribute (or property, when no such attribute exists). */
+    ATTRIBUTE,
+    /** Whether the element is displayed. */
+    VISIBLE
+  }
+
+  private final String[] locator;
+  private final Kind kind;
+  private final String attribute;
+  private final String expected;
+
+  private DomExpectation(String[] locator, Kind kind, String attribute, String expected) {
+    this.locator = locator;
+    this.kind = kind;
+    this.attribute = attribute;
+    this.expected = expected;
+  }
+
+  /**
+   * Expects the element's trimmed visible text to equal the given value.
+   *
+   * @param locator  An array containing the locator strategy and value.
+   * @param expected The expected text.
+   * @return The expectation.
+   */
+  public static DomExpectation text(String[] locator, String expected) {
+    return new DomExpectation(locator, Kind.TEXT, null, expected);
+  }
+
+  /**
+   * Expects an attribute of the element to equal the given value.
+   *
+   * @param locator   An array containing the locator strategy and value.
+   * @param attribute The attribute name.
+   * @param expected  The expected value, or null if the attribute should be absent.
+   * @return The expectation.
+   */
+  public static DomExpectation attribute(String[] locator, String attribute, String expected) {
+    return new DomExpectation(locator, Kind.ATTRIBUTE, attribute, expected);
+  }
+
+  /**
+   * Expects the element to be displayed or hidden.
+   *
+   * @param locator An array containing the locator strategy and value.
+   * @param visible Whether the element should be displayed.
+   * @return The expectation.
+   */
+  public static DomExpectation visible(String[] locator, boolean visible) {
+    return new DomExpectation(locator, Kind.VISIBLE, null, String.valueOf(visible));
+  }
+
+  /**
+   * @return The locator strategy and value.
+   */
+  public String[] getLocator() {
+    return locator;
+  }
+
+  /**
+   * @return The property being checked.
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * @return The attribute name for {@link Kind#ATTRIBUTE} expectations, otherwise null.
+   */
+  public String getAttribute() {
+    return attribute;
+  }
+
+  /**
+   * @return The expected value; "true" or "false" for {@link Kind#VISIBLE} expectations.
+   */
+  public String getExpected() {
+    return expected;
+  }
+
+  /**
+   * Converts the expectation into the plain map passed to the in-browser evaluation script.
+   *
+   * @return The script argument.
+   */
+  Map<String, Object> toScriptArgument() {
+    Map<String, Object> argument = new HashMap<>();
+    argument.put("using", locator[0].toLowerCase());
+    argument.put("value", locator[1]);
+    argument.put("kind", kind.name());
+    argument.put("attribute", attribute);
+    return argument;
+  }
+
+  /**
+   * Describes the expectation for failure messages.
+   *
+   * @return The description.
+   */
+  @Override
+  public String toString() {
+    String property = switch (kind) {
+      case TEXT -> "text";
+      case ATTRIBUTE -> "attribute '" + attribute + "'";
+      case VISIBLE -> "visibility";
+    };
+    return property + " of ['" + locator[0] + "','" + locator[1] + "']";
+  }
+}
@@ -0,0 +1,111 @@
+package helper;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebElement;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * The ElementCache class keeps located WebElement handles for one browser session, keyed by locator, so that
+ * repeated lookups of the same element on the same page do not go back to the remote driver.
+ * It is cleared whenever the page changes, and the {@link CachedElement} handles it returns re-find
+ * themselves if they go stale in between.
+ */
+public class ElementCache {
+  private final Logger ltLogger = LogManager.getLogger(ElementCache.class);
+
+  /**
+   * Remote calls avoided by a cache hit: the element lookup plus the two implicit-wait changes around it.
+   */
+  public static final int ROUND_TRIPS_PER_LOOKUP = 3;
+
+  private final Map<String, WebElement> elements = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder refinds = new LongAdder();
+
+  /**
+   * Default constructor for the ElementCache class.
+   * Initializes an empty cache.
+   */
+  public ElementCache() {
+    super();
+  }
+
+  /**
+   * Returns the cached handle for the locator, or locates the element and caches it.
+   *
+   * @param locator An array containing the locator strategy and value.
+   * @param finder  Locates the element remotely; used on a miss and whenever the handle goes stale.
+   * @return A CachedElement wrapping the located element.
+   */
+  public WebElement get(String[] locator, Supplier<WebElement> finder) {
+    String key = locator[0].toLowerCase() + "=" + locator[1];
+    WebElement cached = elements.get(key);
+    if (cached != null) {
+      hits.increment();
+      ltLogger.info("Element cache hit for ['{}','{}']", locator[0], locator[1]);
+      return cached;
+    }
+    misses.increment();
+    WebElement element = new CachedElement(finder.get(), finder, refinds::increment);
+    elements.put(key, element);
+    return element;
+  }
+
+  /**
+   * Drops every cached handle. Called whenever the browser navigates or reloads.
+   */
+  public void invalidate() {
+    if (!elements.isEmpty()) {
+      ltLogger.info("Invalidating {} cached element(s)", elements.size());
+      elements.clear();
+    }
+  }
+
+  /**
+   * @return The number of lookups served from the cache.
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return The number of lookups that had to locate the element remotely.
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return The number of cached handles that went stale and were located again.
+   */
+  public long getRefinds() {
+    return refinds.sum();
+  }
+
+  /**
+   * @return The fraction of lookups served from the cache, between 0 and 1.
+   */
+  public double getHitRate() {
+    long total = getHits() + getMisses();
+    return total == 0 ? 0 : (double) getHits() / total;
+  }
+
+  /**
+   * @return The estimated number of remote calls avoided, net of the extra lookups spent on stale handles.
+   */
+  public long getSavedRoundTrips() {
+    return Math.max(0, (getHits() - getRefinds()) * ROUND_TRIPS_PER_LOOKUP);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ElementCache{hits=%d, misses=%d, refinds=%d, hitRate=%.2f, savedRoundTrips=%d}",
+        getHits(), getMisses(), getRefinds(), getHitRate(), getSavedRoundTrips());
+  }
+}
@@ -0,0 +1,411 @@
+package helper;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The HttpTape class records HTTP exchanges made through {@link APIHelper} to an on-disk tape and replays them
+ * in-process, so reruns of an API flow do not touch the network. It is applied as a RestAssured filter:
+ * in replay mode a matching request is answered from the tape without a connection being opened.
+ *
+ * <p>The tape is a directory holding {@code tape.dat}, an append-only file of length-prefixed binary
+ * request/response records with strings stored as length-prefixed UTF-8 of any length, and {@code tape.idx}, a compact append-only index of each request's method, URI,
+ * headers and body hash with its record offset. Only the index is read when the tape is opened (it is rebuilt
+ * from the data file if missing); response records are read on demand. Which parts of a request form its
+ * match key is set by a {@link TapeMatchRule} and applied at open time. When the same request was recorded
+ * several times, replay returns the recordings in order and then keeps returning the last one, so polling
+ * flows replay deterministically.
+ *
+ * <p>Request headers that carry credentials (Authorization, Proxy-Authorization, Cookie and any header whose
+ * name ends in {@code -Token} or {@code -Key}) and response {@code Set-Cookie} headers are never written in plain
+ * text: the tape keeps only their SHA-256 digest, so a tape can be shared as a fixture and a rule matching on such
+ * a header still works. A replayed response therefore carries the digest in place of the cookie. Other response
+ * headers and bodies are stored as received.
+ *
+ * <p>Recording never fails a request: if an exchange cannot be written, the failure is logged and the response
+ * is still returned.
+ */
+public class HttpTape implements Filter, Closeable {
+    private final Logger ltLogger = LogManager.getLogger(HttpTape.class);
+
+    /**
+     * The tape mode.
+     */
+    public enum Mode {
+        /** Send every request over the network and append the exchange to the tape. */
+        RECORD,
+        /** Answer every request from the tape; a request with no recording fails. */
+        REPLAY,
+        /** Answer from the tape when a recording exists, otherwise send the request and record it. */
+        REPLAY_OR_RECORD
+    }
+
+    private static final String DATA_FILE = "tape.dat";
+    private static final String INDEX_FILE = "tape.idx";
+    private static final String REDACTED_PREFIX = "sha256:";
+    // Guards against reading a damaged length as a huge allocation
+    private static final int MAX_STRING_BYTES = 64 << 20;
+
+    private final Mode mode;
+    private final TapeMatchRule matchRule;
+    private final FileChannel data;
+    private final DataOutputStream index;
+    private final Map<String, List<Long>> offsets = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> replayCursors = new ConcurrentHashMap<>();
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+
+    /**
+     * Opens a tape with the default match rule (method, path, query parameters and body).
+     *
+     * @param directory The tape directory; created if it does not exist.
+     * @param mode      Whether to record, replay, or replay with recording of new requests.
+     */
+    public HttpTape(Path directory, Mode mode) {
+        this(directory, mode, new TapeMatchRule());
+    }
+
+    /**
+     * Opens a tape.
+     *
+     * @param directory The tape directory; created if it does not exist.
+     * @param mode      Whether to record, replay, or replay with recording of new requests.
+     * @param matchRule Decides which parts of a request identify it.
+     */
+    public HttpTape(Path directory, Mode mode, TapeMatchRule matchRule) {
+        this.mode = mode;
+        this.matchRule = matchRule;
+        try {
+            Files.createDirectories(directory);
+            Path dataFile = directory.resolve(DATA_FILE);
+            Path indexFile = directory.resolve(INDEX_FILE);
+            this.data = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (!loadIndex(indexFile)) {
+                rebuildIndex(indexFile);
+            }
+            this.index = new DataOutputStream(Files.newOutputStream(indexFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open HTTP tape at " + directory, e);
+        }
+        ltLogger.info("Opened HTTP tape {} in {} mode with {} recorded requests", directory, mode, offsets.size());
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        Map<String, Object> headers = new TreeMap<>();
+        requestSpec.getHeaders().asList().forEach(header -> headers.put(header.getName(), header.getValue()));
+        RecordedRequest request = RecordedRequest.of(requestSpec.getMethod(), requestSpec.getURI(), headers,
+                TapeMatchRule.hashBody(bodyOf(requestSpec)));
+        String key = request.key(matchRule);
+
+        if (mode != Mode.RECORD) {
+            List<Long> recordings = offsets.get(key);
+            if (recordings != null) {
+                int cursor = replayCursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+                replayed.increment();
+                ltLogger.info("Replaying recorded response for :- {}", key);
+                return read(recordings.get(Math.min(cursor, recordings.size() - 1)));
+            }
+            if (mode == Mode.REPLAY) {
+                throw new IllegalStateException("No recorded response on tape for :- " + key);
+            }
+        }
+
+        Response response = ctx.next(requestSpec, responseSpec);
+        try {
+            append(request, key, response);
+        } catch (RuntimeException e) {
+            // The real call already succeeded; a tape that cannot take it must not fail the test
+            ltLogger.error("Failed to record response for {} :- {}", key, e.toString());
+        }
+        return response;
+    }
+
+    /**
+     * Replaces the value of a header that carries credentials with its digest; other values are returned as is.
+     */
+    private static Object redact(String name, Object value) {
+        String lowerName = name.toLowerCase();
+        boolean sensitive = lowerName.equals("authorization") || lowerName.equals("proxy-authorization")
+                || lowerName.equals("cookie") || lowerName.equals("set-cookie")
+                || lowerName.endsWith("-token") || lowerName.endsWith("-key");
+        if (!sensitive || value == null || String.valueOf(value).startsWith(REDACTED_PREFIX)) {
+            return value;
+        }
+        return REDACTED_PREFIX + TapeMatchRule.hashBody(String.valueOf(value));
+    }
+
+    private static String bodyOf(FilterableRequestSpecification requestSpec) {
+        Object body = requestSpec.getBody();
+        if (body == null) {
+            return null;
+        }
+        return body instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : body.toString();
+    }
+
+    private synchronized void append(RecordedRequest request, String key, Response response) {
+        try {
+            ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+            DataOutputStream record = new DataOutputStream(recordBytes);
+            request.write(record);
+            record.writeInt(response.getStatusCode());
+            writeString(record, response.getStatusLine() == null ? "" : response.getStatusLine());
+            List<Header> headers = response.getHeaders().asList();
+            record.writeInt(headers.size());
+            for (Header header : headers) {
+                writeString(record, header.getName());
+                writeString(record, String.valueOf(redact(header.getName(), header.getValue())));
+            }
+            byte[] body = response.asByteArray();
+            record.writeInt(body.length);
+            record.write(body);
+            record.flush();
+
+            long offset = data.size();
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + recordBytes.size());
+            buffer.putInt(recordBytes.size()).put(recordBytes.toByteArray()).flip();
+            while (buffer.hasRemaining()) {
+                data.write(buffer, offset + buffer.position());
+            }
+            request.write(index);
+            index.writeLong(offset);
+            index.flush();
+
+            offsets.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(offset);
+            recorded.increment();
+            ltLogger.info("Recorded response for :- {}", key);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record response for " + key, e);
+        }
+    }
+
+    private Response read(long offset) {
+        try {
+            DataInputStream record = new DataInputStream(new ByteArrayInputStream(readRecord(offset)));
+            RecordedRequest.read(record);
+            int statusCode = record.readInt();
+            String statusLine = readString(record);
+            int headerCount = record.readInt();
+            List<Header> headers = new ArrayList<>(headerCount);
+            for (int i = 0; i < headerCount; i++) {
+                headers.add(new Header(readString(record), readString(record)));
+            }
+            byte[] body = new byte[record.readInt()];
+            record.readFully(body);
+
+            Headers responseHeaders = new Headers(headers);
+            ResponseBuilder builder = new ResponseBuilder()
+                    .setStatusCode(statusCode)
+                    .setHeaders(responseHeaders)
+                    .setBody(body);
+            if (!statusLine.isEmpty()) {
+                builder.setStatusLine(statusLine);
+            }
+            String contentType = responseHeaders.getValue("Content-Type");
+            if (contentType != null) {
+                builder.setContentType(contentType);
+            }
+            return builder.build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read recorded response at offset " + offset, e);
+        }
+    }
+
+    private byte[] readRecord(long offset) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        readFully(length, offset);
+        ByteBuffer payload = ByteBuffer.allocate(length.flip().getInt());
+        readFully(payload, offset + Integer.BYTES);
+        return payload.array();
+    }
+
+    /**
+     * Writes a string as its UTF-8 length and bytes; unlike {@code writeUTF}, any length fits.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_STRING_BYTES) {
+            throw new IOException("Invalid string length " + length + " on tape");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (data.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Truncated tape record at offset " + position);
+            }
+        }
+    }
+
+    private boolean loadIndex(Path indexFile) throws IOException {
+        if (!Files.isRegularFile(indexFile)) {
+            return false;
+        }
+        long dataSize = data.size();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            while (true) {
+                RecordedRequest request;
+                try {
+                    request = RecordedRequest.read(in);
+                } catch (EOFException e) {
+                    return true;
+                }
+                long offset = in.readLong();
+                if (offset >= dataSize) {
+                    throw new IOException("Index points past the end of the data file");
+                }
+                offsets.computeIfAbsent(request.key(matchRule), k -> new CopyOnWriteArrayList<>()).add(offset);
+            }
+        } catch (IOException e) {
+            ltLogger.warn("HTTP tape index is damaged, rebuilding it :- {}", e.toString());
+            offsets.clear();
+            return false;
+        }
+    }
+
+    private void rebuildIndex(Path indexFile) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+            long offset = 0;
+            long dataSize = data.size();
+            ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+            while (offset + Integer.BYTES <= dataSize) {
+                length.clear();
+                readFully(length, offset);
+                int recordLength = length.flip().getInt();
+                if (offset + Integer.BYTES + recordLength > dataSize) {
+                    ltLogger.warn("Ignoring truncated HTTP tape record at offset {}", offset);
+                    break;
+                }
+                RecordedRequest request = RecordedRequest.read(new DataInputStream(new ByteArrayInputStream(readRecord(offset))));
+                offsets.computeIfAbsent(request.key(matchRule), k -> new CopyOnWriteArrayList<>()).add(offset);
+                request.write(out);
+                out.writeLong(offset);
+                offset += Integer.BYTES + recordLength;
+            }
+        }
+    }
+
+    /**
+     * Restarts replay from the first recording of every request.
+     */
+    public void rewind() {
+        replayCursors.clear();
+    }
+
+    /**
+     * @return The tape mode.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return The number of exchanges recorded since the tape was opened.
+     */
+    public long getRecorded() {
+        return recorded.sum();
+    }
+
+    /**
+     * @return The number of requests answered from the tape since it was opened.
+     */
+    public long getReplayed() {
+        return replayed.sum();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        index.close();
+        data.close();
+    }
+
+    @Override
+    public String toString() {
+        return "HttpTape{mode=" + mode + ", requests=" + offsets.size() + ", recorded=" + getRecorded() + ", replayed=" + getReplayed() + "}";
+    }
+
+    /**
+     * The parts of a recorded request kept on the tape, from which match keys are derived when the tape is opened.
+     */
+    private record RecordedRequest(String method, String uri, Map<String, Object> headers, String bodyHash) {
+
+        /**
+         * Creates a recorded request with credential headers redacted, which also redacts tapes recorded before
+         * redaction when they are read.
+         */
+        private static RecordedRequest of(String method, String uri, Map<String, Object> headers, String bodyHash) {
+            Map<String, Object> redacted = new TreeMap<>();
+            headers.forEach((name, value) -> redacted.put(name, redact(name, value)));
+            return new RecordedRequest(method, uri, redacted, bodyHash);
+        }
+
+        private String key(TapeMatchRule rule) {
+            return rule.key(method, uri, headers, bodyHash);
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            writeString(out, method);
+            writeString(out, uri);
+            out.writeInt(headers.size());
+            for (Map.Entry<String, Object> header : headers.entrySet()) {
+                writeString(out, header.getKey());
+                writeString(out, String.valueOf(header.getValue()));
+            }
+            writeString(out, bodyHash);
+        }
+
+        private static RecordedRequest read(DataInputStream in) throws IOException {
+            String method = readString(in);
+            String uri = readString(in);
+            int headerCount = in.readInt();
+            Map<String, Object> headers = new TreeMap<>();
+            for (int i = 0; i < headerCount; i++) {
+                headers.put(readString(in), readString(in));
+            }
+            return of(method, uri, headers, readString(in));
+        }
+    }
+}
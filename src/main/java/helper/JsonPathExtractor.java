@@ -0,0 +1,510 @@
+package helper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JsonPathExtractor class pulls a fixed set of values out of a JSON document in a single streaming pass
+ * over its UTF-8 bytes. Paths are compiled once into a lookup tree; values that are not on any path are
+ * skipped without being decoded, and reading stops as soon as every path has been found.
+ * Compiled extractors are immutable and can be shared between threads.
+ *
+ * <p>Paths are plain dotted keys with non-negative array indices, for example {@code data.session_id} or
+ * {@code items[2].name}; a leading {@code $.} is ignored. This is only the simplest part of the GPath syntax
+ * accepted by {@code Response.jsonPath()}: expressions such as {@code collect}, {@code find}, wildcards or
+ * negative indices are rejected by {@link #compile}, and a key applied to an array does not spread over its
+ * elements. Scalars are returned as String, Boolean, Integer, Long, BigInteger or Double, JSON null as null,
+ * and objects or arrays selected by a path as Map and List.
+ */
+public class JsonPathExtractor {
+    // Characters of GPath expressions (closures, method calls, wildcards, filters) that plain keys never need
+    private static final String UNSUPPORTED_KEY_CHARACTERS = "(){}*?'\"=<>!,:&|";
+
+    private final Node root = new Node();
+    private final int pathCount;
+
+    private JsonPathExtractor(String... paths) {
+        for (String path : paths) {
+            Node node = root;
+            for (Object segment : parsePath(path)) {
+                node = segment instanceof Integer index
+                        ? node.indices.computeIfAbsent(index, i -> new Node())
+                        : node.keys.computeIfAbsent((String) segment, k -> new Node());
+            }
+            if (node.target != null) {
+                throw new IllegalArgumentException("Duplicate JSON path: " + path);
+            }
+            node.target = path;
+        }
+        this.pathCount = paths.length;
+    }
+
+    /**
+     * Compiles the given paths into a reusable extractor.
+     *
+     * @param paths The JSON paths to extract.
+     * @return      The compiled extractor.
+     */
+    public static JsonPathExtractor compile(String... paths) {
+        if (paths == null || paths.length == 0) {
+            throw new IllegalArgumentException("At least one JSON path is required");
+        }
+        return new JsonPathExtractor(paths);
+    }
+
+    /**
+     * Extracts the compiled paths from a UTF-8 encoded JSON document.
+     *
+     * @param json The raw JSON bytes.
+     * @return     A map from each path found to its value, in the order the values appear in the document.
+     *             Paths that are not present in the document are absent from the map.
+     */
+    public Map<String, Object> extract(byte[] json) {
+        return extract(new ByteArrayInputStream(json));
+    }
+
+    /**
+     * Extracts the compiled paths from a UTF-8 encoded JSON stream. The stream is read only up to the last
+     * value needed and is not closed.
+     *
+     * @param json The JSON stream.
+     * @return     A map from each path found to its value, in the order the values appear in the document.
+     *             Paths that are not present in the document are absent from the map.
+     */
+    public Map<String, Object> extract(InputStream json) {
+        Scanner scanner = new Scanner(json);
+        scanner.skipWhitespace();
+        scanner.value(root);
+        return scanner.found;
+    }
+
+    private static List<Object> parsePath(String path) {
+        String trimmed = path.startsWith("$.") ? path.substring(2) : path;
+        List<Object> segments = new ArrayList<>();
+        for (String part : trimmed.split("\\.")) {
+            int bracket = part.indexOf('[');
+            String key = bracket < 0 ? part : part.substring(0, bracket);
+            if (!key.isEmpty()) {
+                for (int i = 0; i < key.length(); i++) {
+                    if (UNSUPPORTED_KEY_CHARACTERS.indexOf(key.charAt(i)) >= 0 || Character.isWhitespace(key.charAt(i))) {
+                        throw new IllegalArgumentException("Unsupported GPath syntax '" + key.charAt(i) + "' in JSON path: " + path);
+                    }
+                }
+                segments.add(key);
+            } else if (bracket < 0) {
+                throw new IllegalArgumentException("Empty key in JSON path: " + path);
+            }
+            while (bracket >= 0) {
+                int close = part.indexOf(']', bracket);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed index in JSON path: " + path);
+                }
+                String index = part.substring(bracket + 1, close).trim();
+                if (!index.matches("\\d+")) {
+                    throw new IllegalArgumentException("Only non-negative array indices are supported, got [" + index + "] in JSON path: " + path);
+                }
+                segments.add(Integer.parseInt(index));
+                bracket = part.indexOf('[', close);
+                if (bracket < 0 && close != part.length() - 1 || bracket > close + 1) {
+                    throw new IllegalArgumentException("Unexpected characters after index in JSON path: " + path);
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("Empty JSON path: " + path);
+        }
+        return segments;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> keys = new HashMap<>();
+        private final Map<Integer, Node> indices = new HashMap<>();
+        private String target;
+
+        private boolean hasChildren() {
+            return !keys.isEmpty() || !indices.isEmpty();
+        }
+    }
+
+    private final class Scanner {
+        private final InputStream in;
+        private final byte[] buffer = new byte[8192];
+        private final Map<String, Object> found = new LinkedHashMap<>();
+        // Bytes of the string or number being read
+        private byte[] token = new byte[64];
+        private int tokenLength;
+        private int limit;
+        private int pos;
+        private long consumed;
+
+        private Scanner(InputStream in) {
+            this.in = in;
+        }
+
+        private boolean done() {
+            return found.size() == pathCount;
+        }
+
+        private void value(Node node) {
+            if (node == null) {
+                skipValue();
+                return;
+            }
+            if (node.target != null) {
+                Object value = readValue();
+                found.put(node.target, value);
+                if (node.hasChildren()) {
+                    collect(node, value);
+                }
+                return;
+            }
+            byte b = peek();
+            if (b == '{') {
+                object(node);
+            } else if (b == '[') {
+                array(node);
+            } else {
+                skipValue();
+            }
+        }
+
+        private void object(Node node) {
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                value(node.keys.get(key));
+                if (done()) {
+                    return;
+                }
+                skipWhitespace();
+                if (separator('}')) {
+                    return;
+                }
+            }
+        }
+
+        private void array(Node node) {
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return;
+            }
+            for (int index = 0; ; index++) {
+                skipWhitespace();
+                value(node.indices.get(index));
+                if (done()) {
+                    return;
+                }
+                skipWhitespace();
+                if (separator(']')) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Resolves paths below a node whose own value was already materialized, for example "a" and "a.b".
+         */
+        @SuppressWarnings("unchecked")
+        private void collect(Node node, Object value) {
+            node.keys.forEach((key, child) -> {
+                if (value instanceof Map<?, ?> map && map.containsKey(key)) {
+                    collectChild(child, ((Map<String, Object>) map).get(key));
+                }
+            });
+            node.indices.forEach((index, child) -> {
+                if (value instanceof List<?> list && index < list.size()) {
+                    collectChild(child, list.get(index));
+                }
+            });
+        }
+
+        private void collectChild(Node child, Object value) {
+            if (child.target != null) {
+                found.put(child.target, value);
+            }
+            collect(child, value);
+        }
+
+        private Object readValue() {
+            byte b = peek();
+            switch (b) {
+                case '"':
+                    return readString();
+                case '{': {
+                    pos++;
+                    Map<String, Object> map = new LinkedHashMap<>();
+                    skipWhitespace();
+                    if (peek() == '}') {
+                        pos++;
+                        return map;
+                    }
+                    while (true) {
+                        skipWhitespace();
+                        String key = readString();
+                        skipWhitespace();
+                        expect(':');
+                        skipWhitespace();
+                        map.put(key, readValue());
+                        skipWhitespace();
+                        if (separator('}')) {
+                            return map;
+                        }
+                    }
+                }
+                case '[': {
+                    pos++;
+                    List<Object> list = new ArrayList<>();
+                    skipWhitespace();
+                    if (peek() == ']') {
+                        pos++;
+                        return list;
+                    }
+                    while (true) {
+                        skipWhitespace();
+                        list.add(readValue());
+                        skipWhitespace();
+                        if (separator(']')) {
+                            return list;
+                        }
+                    }
+                }
+                case 't':
+                    literal("true");
+                    return Boolean.TRUE;
+                case 'f':
+                    literal("false");
+                    return Boolean.FALSE;
+                case 'n':
+                    literal("null");
+                    return null;
+                default:
+                    return readNumber();
+            }
+        }
+
+        private Object readNumber() {
+            tokenLength = 0;
+            boolean decimal = false;
+            while (fill()) {
+                byte b = buffer[pos];
+                if (b == '.' || b == 'e' || b == 'E') {
+                    decimal = true;
+                } else if (!(b == '-' || b == '+' || (b >= '0' && b <= '9'))) {
+                    break;
+                }
+                appendToken(b);
+                pos++;
+            }
+            if (tokenLength == 0) {
+                throw error("Unexpected character '" + (char) peek() + "'");
+            }
+            String number = new String(token, 0, tokenLength, StandardCharsets.US_ASCII);
+            try {
+                if (decimal) {
+                    return Double.parseDouble(number);
+                }
+                if (number.length() <= 18) {
+                    long value = Long.parseLong(number);
+                    return value == (int) value ? (Object) (int) value : (Object) value;
+                }
+                BigInteger big = new BigInteger(number);
+                return big.bitLength() < 64 ? (Object) big.longValue() : big;
+            } catch (NumberFormatException e) {
+                throw error("Malformed number '" + number + "'");
+            }
+        }
+
+        private String readString() {
+            expect('"');
+            tokenLength = 0;
+            StringBuilder escaped = null;
+            while (true) {
+                byte b = next();
+                if (b == '"') {
+                    String run = new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+                    return escaped == null ? run : escaped.append(run).toString();
+                }
+                if (b != '\\') {
+                    appendToken(b);
+                    continue;
+                }
+                // A run of raw bytes always ends before an ASCII backslash, so it never splits a UTF-8 sequence
+                if (escaped == null) {
+                    escaped = new StringBuilder();
+                }
+                escaped.append(new String(token, 0, tokenLength, StandardCharsets.UTF_8));
+                tokenLength = 0;
+                byte code = next();
+                switch (code) {
+                    case 'b' -> escaped.append('\b');
+                    case 'f' -> escaped.append('\f');
+                    case 'n' -> escaped.append('\n');
+                    case 'r' -> escaped.append('\r');
+                    case 't' -> escaped.append('\t');
+                    case 'u' -> {
+                        char[] hex = new char[4];
+                        for (int i = 0; i < hex.length; i++) {
+                            hex[i] = (char) next();
+                        }
+                        try {
+                            escaped.append((char) Integer.parseInt(new String(hex), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid unicode escape");
+                        }
+                    }
+                    default -> escaped.append((char) code);
+                }
+            }
+        }
+
+        private void appendToken(byte b) {
+            if (tokenLength == token.length) {
+                token = Arrays.copyOf(token, token.length * 2);
+            }
+            token[tokenLength++] = b;
+        }
+
+        /**
+         * Skips one complete value without decoding it.
+         */
+        private void skipValue() {
+            byte b = peek();
+            if (b == '"') {
+                skipString();
+                return;
+            }
+            if (b != '{' && b != '[') {
+                while (fill()) {
+                    byte c = buffer[pos];
+                    if (c == ',' || c == '}' || c == ']' || c <= ' ') {
+                        return;
+                    }
+                    pos++;
+                }
+                return;
+            }
+            int depth = 0;
+            while (fill()) {
+                byte c = buffer[pos];
+                if (c == '"') {
+                    skipString();
+                    continue;
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                    if (depth == 0) {
+                        pos++;
+                        return;
+                    }
+                }
+                pos++;
+            }
+            throw error("Unterminated " + (b == '{' ? "object" : "array"));
+        }
+
+        private void skipString() {
+            pos++;
+            while (true) {
+                byte c = next();
+                if (c == '\\') {
+                    next();
+                } else if (c == '"') {
+                    return;
+                }
+            }
+        }
+
+        private void literal(String expected) {
+            for (int i = 0; i < expected.length(); i++) {
+                if (next() != expected.charAt(i)) {
+                    throw error("Expected '" + expected + "'");
+                }
+            }
+        }
+
+        private void skipWhitespace() {
+            while (fill() && (buffer[pos] == ' ' || buffer[pos] == '\n' || buffer[pos] == '\r' || buffer[pos] == '\t')) {
+                pos++;
+            }
+        }
+
+        private boolean separator(char close) {
+            byte b = peek();
+            if (b == close) {
+                pos++;
+                return true;
+            }
+            if (b != ',') {
+                throw error("Expected ',' or '" + close + "'");
+            }
+            pos++;
+            return false;
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+            pos++;
+        }
+
+        /**
+         * Makes sure the buffer holds at least one unread byte, reading more of the stream if needed.
+         *
+         * @return false at the end of the stream.
+         */
+        private boolean fill() {
+            if (pos < limit) {
+                return true;
+            }
+            try {
+                consumed += limit;
+                pos = 0;
+                limit = Math.max(0, in.read(buffer));
+                return limit > 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read JSON response", e);
+            }
+        }
+
+        private byte peek() {
+            if (!fill()) {
+                throw error("Unexpected end of JSON");
+            }
+            return buffer[pos];
+        }
+
+        private byte next() {
+            byte b = peek();
+            pos++;
+            return b;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at byte " + (consumed + pos) + " of JSON response");
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package helper;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram class records latency samples (in microseconds) into log-linear buckets.
+ * Values below 128µs are stored exactly; larger values keep 64 sub-buckets per power of two,
+ * which bounds the relative error of any reported percentile to under 1.6%.
+ * Recording is lock-free, so many virtual threads can record into the same histogram concurrently.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong minMicros = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxMicros = new AtomicLong(0);
+
+    /**
+     * Default constructor for the LatencyHistogram class.
+     * Initializes an empty histogram.
+     */
+    public LatencyHistogram() {
+        super();
+    }
+
+    /**
+     * Records a single latency sample.
+     *
+     * @param micros The latency in microseconds. Negative values are recorded as zero.
+     */
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalMicros.add(value);
+        minMicros.accumulateAndGet(value, Math::min);
+        maxMicros.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Returns the total number of recorded samples.
+     *
+     * @return The sample count.
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Returns the smallest recorded latency.
+     *
+     * @return The minimum latency in microseconds, or 0 if nothing was recorded.
+     */
+    public long getMin() {
+        return getCount() == 0 ? 0 : minMicros.get();
+    }
+
+    /**
+     * Returns the largest recorded latency.
+     *
+     * @return The maximum latency in microseconds.
+     */
+    public long getMax() {
+        return maxMicros.get();
+    }
+
+    /**
+     * Returns the arithmetic mean of all recorded latencies.
+     *
+     * @return The mean latency in microseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalMicros.sum() / count;
+    }
+
+    /**
+     * Returns the latency at the given percentile using the nearest-rank method.
+     *
+     * @param percentile The percentile to compute, between 0 and 100.
+     * @return The latency in microseconds (upper bound of the matching bucket, capped at the observed maximum).
+     */
+    public long getPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Builds a printable distribution with the count of samples per non-empty bucket.
+     *
+     * @return A multi-line string, one line per non-empty bucket, of the form "[low, high] µs : count".
+     */
+    public String toDistributionString() {
+        StringBuilder distribution = new StringBuilder();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucketCount = counts.get(i);
+            if (bucketCount > 0) {
+                distribution.append('[').append(bucketLowerBound(i)).append(", ").append(bucketUpperBound(i))
+                        .append("] µs : ").append(bucketCount).append('\n');
+            }
+        }
+        return distribution.toString();
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long bucketLowerBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        int subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        return (1L << exponent) + ((long) subBucket << (exponent - SUB_BUCKET_BITS));
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        return bucketLowerBound(index) + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,102 @@
+package helper;
+
+import io.restassured.http.ContentType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The LoadGenerator class drives an open-model load against a single endpoint using the same request
+ * definition as {@link APIHelper#httpMethod}. Requests are started on a fixed schedule derived from the
+ * target rate, each on its own virtual thread, regardless of how long earlier requests take.
+ * Every latency is measured from the intended send time, which avoids coordinated omission:
+ * if the scheduler or the server falls behind, the delay is charged to the requests that waited.
+ *
+ * <p>Load requests are not logged one by one, and GETs bypass the APIHelper's response cache and request
+ * coalescer so that every scheduled request reaches the server; a tape or rate limiter set on it still applies.
+ */
+public class LoadGenerator {
+    private final Logger ltLogger = LogManager.getLogger(LoadGenerator.class);
+    private final APIHelper apiHelper;
+
+    /**
+     * Constructs a LoadGenerator that issues requests through the given APIHelper.
+     *
+     * @param apiHelper The APIHelper used to execute each request.
+     */
+    public LoadGenerator(APIHelper apiHelper) {
+        this.apiHelper = apiHelper;
+    }
+
+    /**
+     * Runs the load at a constant target rate for the given duration and waits for all in-flight requests.
+     *
+     * @param method          The HTTP method (GET, POST, PUT, DELETE, etc.).
+     * @param uri             The URI of the API endpoint.
+     * @param body            The request body as a string.
+     * @param contentType     The content type of the request (e.g., JSON, XML).
+     * @param headers         A map of headers to include in the request.
+     * @param queryParam      A map of query parameters to include in the request.
+     * @param expectedStatus  The expected HTTP status code of the response.
+     * @param requestsPerSecond The target rate in requests per second.
+     * @param duration        How long to keep issuing requests.
+     * @return                The LoadResult with throughput, error rate and latency histogram.
+     */
+    public LoadResult run(String method,
+                          String uri,
+                          String body,
+                          ContentType contentType,
+                          Map<String, Object> headers,
+                          Map<String, Object> queryParam,
+                          int expectedStatus,
+                          double requestsPerSecond,
+                          Duration duration) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("Requests per second must be positive: " + requestsPerSecond);
+        }
+
+        long intervalNanos = (long) (1_000_000_000L / requestsPerSecond);
+        long totalRequests = (long) Math.floor(duration.toNanos() / 1_000_000_000.0 * requestsPerSecond);
+        ltLogger.info("Starting load on Method :- {} URI :- {} at {} rps for {} ({} requests)",
+                method, uri, requestsPerSecond, duration, totalRequests);
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+        long startNanos = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < totalRequests; i++) {
+                long intendedNanos = startNanos + i * intervalNanos;
+                long sleepNanos;
+                while ((sleepNanos = intendedNanos - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(sleepNanos);
+                }
+                executor.execute(() -> {
+                    try {
+                        if (apiHelper.send(method, uri, body, contentType, headers, queryParam, expectedStatus, false) == null) {
+                            throw new IllegalArgumentException("Unsupported method: " + method);
+                        }
+                        succeeded.increment();
+                    } catch (Throwable t) {
+                        failed.increment();
+                        ltLogger.debug("Load request failed :- {}", t.toString());
+                    } finally {
+                        histogram.record((System.nanoTime() - intendedNanos) / 1000);
+                    }
+                });
+            }
+        }
+
+        LoadResult result = new LoadResult(requestsPerSecond, totalRequests, succeeded.sum(), failed.sum(),
+                Duration.ofNanos(System.nanoTime() - startNanos), histogram);
+        ltLogger.info("Load finished :- {}", result.summary());
+        return result;
+    }
+}
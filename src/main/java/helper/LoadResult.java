@@ -0,0 +1,126 @@
+package helper;
+
+import java.time.Duration;
+
+/**
+ * The LoadResult class holds the outcome of an open-model load run produced by {@link LoadGenerator}.
+ * Latencies are measured from the intended send time of each request, so a stalled server shows up
+ * in the percentiles instead of silently lowering the achieved request rate.
+ */
+public class LoadResult {
+    private final double targetRate;
+    private final long sent;
+    private final long succeeded;
+    private final long failed;
+    private final Duration elapsed;
+    private final LatencyHistogram histogram;
+
+    /**
+     * Constructs a LoadResult with the collected counters and latency histogram.
+     *
+     * @param targetRate The requested rate in requests per second.
+     * @param sent       The number of requests issued.
+     * @param succeeded  The number of requests that returned the expected status.
+     * @param failed     The number of requests that failed or returned an unexpected status.
+     * @param elapsed    The wall-clock time from the first intended send until the last response.
+     * @param histogram  The latency histogram, measured against intended send times.
+     */
+    public LoadResult(double targetRate, long sent, long succeeded, long failed, Duration elapsed, LatencyHistogram histogram) {
+        this.targetRate = targetRate;
+        this.sent = sent;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.elapsed = elapsed;
+        this.histogram = histogram;
+    }
+
+    /**
+     * @return The requested rate in requests per second.
+     */
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    /**
+     * @return The number of requests issued.
+     */
+    public long getSent() {
+        return sent;
+    }
+
+    /**
+     * @return The number of requests that returned the expected status.
+     */
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * @return The number of requests that failed or returned an unexpected status.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return The wall-clock duration of the run.
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * @return The latency histogram in microseconds.
+     */
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * Returns the achieved throughput of completed requests.
+     *
+     * @return Completed requests per second.
+     */
+    public double getThroughput() {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return seconds == 0 ? 0 : (succeeded + failed) / seconds;
+    }
+
+    /**
+     * Returns the fraction of requests that failed.
+     *
+     * @return The error rate between 0 and 1.
+     */
+    public double getErrorRate() {
+        long completed = succeeded + failed;
+        return completed == 0 ? 0 : (double) failed / completed;
+    }
+
+    /**
+     * Returns the latency at the given percentile.
+     *
+     * @param percentile The percentile to compute, between 0 and 100.
+     * @return The latency in milliseconds.
+     */
+    public double getLatencyMillis(double percentile) {
+        return histogram.getPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Builds a one-line human-readable summary of the run.
+     *
+     * @return The summary string.
+     */
+    public String summary() {
+        return String.format("Target :- %.1f rps, Achieved :- %.1f rps, Sent :- %d, Errors :- %d (%.2f%%), "
+                        + "Latency ms p50 :- %.2f, p90 :- %.2f, p99 :- %.2f, p99.9 :- %.2f, max :- %.2f",
+                targetRate, getThroughput(), sent, failed, getErrorRate() * 100,
+                getLatencyMillis(50), getLatencyMillis(90), getLatencyMillis(99), getLatencyMillis(99.9),
+                histogram.getMax() / 1000.0);
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+}
@@ -0,0 +1,129 @@
+package helper;
+
+import java.time.Duration;
+
+/**
+ * The LocatorProfile class holds what {@link LocatorProfiler} measured for one locator: how often it was
+ * looked up, how long it takes to evaluate in the page, and the cheapest equivalent locator it found, if any.
+ */
+public class LocatorProfile {
+  private final String using;
+  private final String value;
+  private final long lookups;
+  private final int samples;
+  private final Duration meanLookup;
+  private final double micros;
+  private final String suggestedUsing;
+  private final String suggestedValue;
+  private final double suggestedMicros;
+
+  /**
+   * Constructs a LocatorProfile.
+   *
+   * @param using           The locator strategy.
+   * @param value           The locator value.
+   * @param lookups         The number of successful lookups.
+   * @param samples         The number of lookups that were also timed in the page.
+   * @param meanLookup      The mean wall-clock time of a lookup, including the remote round-trip and any waiting.
+   * @param micros          The mean time the locator takes to evaluate in the page, in microseconds.
+   * @param suggestedUsing  The strategy of the cheapest equivalent locator, or null if none was found.
+   * @param suggestedValue  The value of the cheapest equivalent locator, or null if none was found.
+   * @param suggestedMicros The mean time the equivalent locator takes to evaluate in the page, in microseconds.
+   */
+  public LocatorProfile(String using, String value, long lookups, int samples, Duration meanLookup, double micros,
+                        String suggestedUsing, String suggestedValue, double suggestedMicros) {
+    this.using = using;
+    this.value = value;
+    this.lookups = lookups;
+    this.samples = samples;
+    this.meanLookup = meanLookup;
+    this.micros = micros;
+    this.suggestedUsing = suggestedUsing;
+    this.suggestedValue = suggestedValue;
+    this.suggestedMicros = suggestedMicros;
+  }
+
+  /**
+   * @return The locator strategy.
+   */
+  public String getUsing() {
+    return using;
+  }
+
+  /**
+   * @return The locator value.
+   */
+  public String getValue() {
+    return value;
+  }
+
+  /**
+   * @return The number of successful lookups.
+   */
+  public long getLookups() {
+    return lookups;
+  }
+
+  /**
+   * @return The number of lookups that were also timed in the page; 0 if profiling failed every time.
+   */
+  public int getSamples() {
+    return samples;
+  }
+
+  /**
+   * @return The mean wall-clock time of a lookup, including the remote round-trip and any waiting.
+   */
+  public Duration getMeanLookup() {
+    return meanLookup;
+  }
+
+  /**
+   * @return The mean time the locator takes to evaluate in the page, in microseconds.
+   */
+  public double getMicros() {
+    return micros;
+  }
+
+  /**
+   * @return The suggested replacement as a {strategy, value} locator, or null if none is cheaper.
+   */
+  public String[] getSuggestion() {
+    return suggestedUsing == null ? null : new String[]{suggestedUsing, suggestedValue};
+  }
+
+  /**
+   * @return The mean time the suggested replacement takes to evaluate in the page, in microseconds.
+   */
+  public double getSuggestedMicros() {
+    return suggestedMicros;
+  }
+
+  /**
+   * @return The in-page time the suggestion would save over all recorded lookups, in microseconds.
+   */
+  public double getSavingMicros() {
+    return suggestedUsing == null ? 0 : (micros - suggestedMicros) * lookups;
+  }
+
+  /**
+   * @return The total in-page time of all recorded lookups, in microseconds.
+   */
+  public double getTotalMicros() {
+    return micros * lookups;
+  }
+
+  @Override
+  public String toString() {
+    String profile = String.format("['%s','%s'] lookups :- %d, mean lookup :- %d ms", using, value, lookups, meanLookup.toMillis());
+    if (samples == 0) {
+      return profile + ", in page :- not measured";
+    }
+    profile += String.format(", in page :- %.1f us", micros);
+    if (suggestedUsing == null) {
+      return profile + ", no cheaper equivalent found";
+    }
+    return profile + String.format(", suggest ['%s','%s'] at %.1f us (%.1fx faster)", suggestedUsing, suggestedValue,
+        suggestedMicros, suggestedMicros > 0 ? micros / suggestedMicros : Double.POSITIVE_INFINITY);
+  }
+}
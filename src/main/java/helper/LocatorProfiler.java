@@ -0,0 +1,202 @@
+package helper;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static utility.Constant.NEW_LINE;
+
+/**
+ * The LocatorProfiler class measures what the locators of a suite cost and suggests cheaper ones. Every
+ * successful lookup made through {@link WebDriverHelper#waitForElement} is counted and timed. For the first few
+ * lookups of each locator, a script also times the locator inside the page, where the remote round-trip
+ * (the same for every strategy) does not hide the difference, and derives equivalent id, name and CSS
+ * locators for the element it found, timing those too.
+ *
+ * <p>An equivalent is only suggested if it found the same single element every time the locator was
+ * profiled. The {@link #report()} ranks locators by the in-page time their suggestion would save over the
+ * whole run, so the XPath lookups worth rewriting come first. One profiler can be shared by all helpers.
+ */
+public class LocatorProfiler {
+  private final Logger ltLogger = LogManager.getLogger(LocatorProfiler.class);
+
+  private final Map<String, Stats> locators = new ConcurrentHashMap<>();
+  private int samplesPerLocator = 3;
+  private int budgetMillis = 20;
+
+  /**
+   * Default constructor for the LocatorProfiler class.
+   * Initializes a profiler that profiles each locator on its first 3 lookups, timing each variant for 20 ms.
+   */
+  public LocatorProfiler() {
+    super();
+  }
+
+  /**
+   * Sets how many lookups of each locator are profiled in the page; later lookups are only counted and timed.
+   *
+   * @param samplesPerLocator The number of profiled lookups per locator.
+   */
+  public void setSamplesPerLocator(int samplesPerLocator) {
+    this.samplesPerLocator = samplesPerLocator;
+  }
+
+  /**
+   * @return The number of profiled lookups per locator.
+   */
+  public int getSamplesPerLocator() {
+    return samplesPerLocator;
+  }
+
+  /**
+   * Sets how long each locator variant is evaluated repeatedly in the page to time it. Longer budgets give
+   * steadier numbers in browsers that coarsen their timers.
+   *
+   * @param budgetMillis The time budget per variant, in milliseconds.
+   */
+  public void setBudgetMillis(int budgetMillis) {
+    this.budgetMillis = budgetMillis;
+  }
+
+  /**
+   * @return The time budget per variant, in milliseconds.
+   */
+  public int getBudgetMillis() {
+    return budgetMillis;
+  }
+
+  /**
+   * Records a successful lookup and, while the locator has profiling samples left, profiles it in the page.
+   * Profiling failures are logged and never fail the lookup.
+   *
+   * @param driver  The driver the element was found with.
+   * @param locator An array containing the locator strategy and value.
+   * @param elapsed The wall-clock time of the lookup.
+   */
+  @SuppressWarnings("unchecked")
+  public void record(WebDriver driver, String[] locator, Duration elapsed) {
+    String using = locator[0].toLowerCase();
+    Stats stats = locators.computeIfAbsent(using + "=" + locator[1], key -> new Stats(using, locator[1]));
+    if (!stats.recordLookup(elapsed, samplesPerLocator)) {
+      return;
+    }
+    try {
+      Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver)
+          .executeScript(BrowserScripts.PROFILE_LOCATOR, using, locator[1], budgetMillis);
+      if (result != null) {
+        stats.recordSample(((Number) result.get("original")).doubleValue(), (List<Map<String, Object>>) result.get("candidates"));
+      }
+    } catch (RuntimeException e) {
+      ltLogger.warn("Could not profile locator ['{}','{}'] :- {}", locator[0], locator[1], e.toString());
+    }
+  }
+
+  /**
+   * @return The profiles of all locators looked up so far, most worth replacing first.
+   */
+  public List<LocatorProfile> getProfiles() {
+    return locators.values().stream()
+        .map(Stats::snapshot)
+        .sorted(Comparator.comparingDouble(LocatorProfile::getSavingMicros).reversed()
+            .thenComparing(Comparator.comparingDouble(LocatorProfile::getTotalMicros).reversed()))
+        .toList();
+  }
+
+  /**
+   * Drops everything recorded so far.
+   */
+  public void reset() {
+    locators.clear();
+  }
+
+  /**
+   * Builds a ranked report of the profiled locators with their suggested replacements.
+   *
+   * @return The report, one line per locator.
+   */
+  public String report() {
+    List<LocatorProfile> profiles = getProfiles();
+    StringBuilder report = new StringBuilder(String.format("Locator profile :- %d locators, %d lookups, %d with a cheaper equivalent%n",
+        profiles.size(), profiles.stream().mapToLong(LocatorProfile::getLookups).sum(),
+        profiles.stream().filter(profile -> profile.getSuggestion() != null).count()));
+    for (int i = 0; i < profiles.size(); i++) {
+      report.append(String.format("%3d. ", i + 1)).append(profiles.get(i)).append(NEW_LINE);
+    }
+    return report.toString();
+  }
+
+  @Override
+  public String toString() {
+    return report();
+  }
+
+  private static final class Stats {
+    private final String using;
+    private final String value;
+    private final Map<String, double[]> candidates = new HashMap<>();
+    private long lookups;
+    private long lookupNanos;
+    private int samplesTaken;
+    private int samples;
+    private double micros;
+
+    private Stats(String using, String value) {
+      this.using = using;
+      this.value = value;
+    }
+
+    /**
+     * Counts a lookup and reports whether it should also be profiled.
+     */
+    private synchronized boolean recordLookup(Duration elapsed, int samplesPerLocator) {
+      lookups++;
+      lookupNanos += elapsed.toNanos();
+      if (samplesTaken >= samplesPerLocator) {
+        return false;
+      }
+      samplesTaken++;
+      return true;
+    }
+
+    private synchronized void recordSample(double originalMicros, List<Map<String, Object>> found) {
+      samples++;
+      micros += originalMicros;
+      for (Map<String, Object> candidate : found) {
+        // Per candidate: the number of samples it was found in and the sum of its timings
+        double[] totals = candidates.computeIfAbsent(candidate.get("using") + "=" + candidate.get("value"), key -> new double[2]);
+        totals[0]++;
+        totals[1] += ((Number) candidate.get("micros")).doubleValue();
+      }
+    }
+
+    private synchronized LocatorProfile snapshot() {
+      double meanMicros = samples == 0 ? 0 : micros / samples;
+      String bestKey = null;
+      double bestMicros = meanMicros;
+      for (Map.Entry<String, double[]> candidate : candidates.entrySet()) {
+        double[] totals = candidate.getValue();
+        double candidateMicros = totals[1] / totals[0];
+        // A candidate missing from any sample did not always find the same element
+        if (totals[0] == samples && candidateMicros < bestMicros) {
+          bestKey = candidate.getKey();
+          bestMicros = candidateMicros;
+        }
+      }
+      Duration meanLookup = Duration.ofNanos(lookups == 0 ? 0 : lookupNanos / lookups);
+      if (bestKey == null) {
+        return new LocatorProfile(using, value, lookups, samples, meanLookup, meanMicros, null, null, 0);
+      }
+      int separator = bestKey.indexOf('=');
+      return new LocatorProfile(using, value, lookups, samples, meanLookup, meanMicros,
+          bestKey.substring(0, separator), bestKey.substring(separator + 1), bestMicros);
+    }
+  }
+}
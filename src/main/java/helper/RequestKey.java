@@ -0,0 +1,57 @@
+package helper;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * The RequestKey class builds stable string keys that identify a request by its URI, query parameters
+ * and headers. Parameter and header order does not affect the key, and header names are compared
+ * case-insensitively.
+ */
+public final class RequestKey {
+
+    private RequestKey() {
+    }
+
+    /**
+     * Builds a key from the URI, every query parameter and every header.
+     *
+     * @param uri        The URI of the API endpoint.
+     * @param headers    The request headers, may be null.
+     * @param queryParam The query parameters, may be null.
+     * @return           The request key.
+     */
+    public static String of(String uri, Map<String, Object> headers, Map<String, Object> queryParam) {
+        return of(uri, headers, queryParam, name -> true);
+    }
+
+    /**
+     * Builds a key from the URI, every query parameter and the headers accepted by the filter.
+     *
+     * @param uri          The URI of the API endpoint.
+     * @param headers      The request headers, may be null.
+     * @param queryParam   The query parameters, may be null.
+     * @param headerFilter Decides which header names take part in the key.
+     * @return             The request key.
+     */
+    public static String of(String uri, Map<String, Object> headers, Map<String, Object> queryParam, Predicate<String> headerFilter) {
+        StringBuilder key = new StringBuilder(uri);
+        if (queryParam != null && !queryParam.isEmpty()) {
+            key.append('?').append(new TreeMap<>(queryParam));
+        }
+        if (headers != null) {
+            Map<String, Object> sortedHeaders = new TreeMap<>();
+            headers.forEach((name, value) -> {
+                if (headerFilter.test(name)) {
+                    sortedHeaders.put(name.toLowerCase(Locale.ROOT), value);
+                }
+            });
+            if (!sortedHeaders.isEmpty()) {
+                key.append('#').append(sortedHeaders);
+            }
+        }
+        return key.toString();
+    }
+}
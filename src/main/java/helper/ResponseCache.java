@@ -0,0 +1,221 @@
+package helper;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The ResponseCache class is an opt-in, in-memory LRU cache for idempotent GET responses made through
+ * {@link APIHelper#httpMethod}. Entries are keyed by URI, query parameters and request headers, are
+ * served directly while younger than the configured TTL, and are revalidated with
+ * {@code If-None-Match} / {@code If-Modified-Since} once stale, so an unchanged resource costs a
+ * 304 round-trip instead of a full download.
+ */
+public class ResponseCache {
+    private final Logger ltLogger = LogManager.getLogger(ResponseCache.class);
+
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+    private static final String CACHE_CONTROL = "Cache-Control";
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+    private static final int NOT_MODIFIED = 304;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Set<String> keyHeaders;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+
+    /**
+     * Constructs a ResponseCache that keys entries on every request header.
+     *
+     * @param maxEntries The maximum number of responses kept; the least recently used entry is evicted first.
+     * @param ttl        How long a response is served without contacting the server.
+     */
+    public ResponseCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, null);
+    }
+
+    /**
+     * Constructs a ResponseCache that keys entries only on the given request headers.
+     *
+     * @param maxEntries The maximum number of responses kept; the least recently used entry is evicted first.
+     * @param ttl        How long a response is served without contacting the server.
+     * @param keyHeaders The header names (case-insensitive) that distinguish responses, or null for all headers.
+     */
+    public ResponseCache(int maxEntries, Duration ttl, Set<String> keyHeaders) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        if (keyHeaders == null) {
+            this.keyHeaders = null;
+        } else {
+            this.keyHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            this.keyHeaders.addAll(keyHeaders);
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ResponseCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Builds the cache key for a request from its URI, query parameters and the headers this cache keys on.
+     *
+     * @param uri        The URI of the API endpoint.
+     * @param headers    The request headers, may be null.
+     * @param queryParam The query parameters, may be null.
+     * @return           The cache key.
+     */
+    public String key(String uri, Map<String, Object> headers, Map<String, Object> queryParam) {
+        return RequestKey.of(uri, headers, queryParam, name -> keyHeaders == null || keyHeaders.contains(name));
+    }
+
+    /**
+     * Serves a GET from the cache, revalidating a stale entry or fetching a new one when needed.
+     * Only 200 responses without {@code Cache-Control: no-store} are stored.
+     *
+     * @param key The cache key from {@link #key}.
+     * @param req The prepared request specification, used when the server must be contacted.
+     * @param uri The URI of the API endpoint.
+     * @return    The cached or freshly fetched response, with its body fully buffered.
+     */
+    public Response get(String key, RequestSpecification req, String uri) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        long now = System.nanoTime();
+        if (entry != null && entry.isFresh(now)) {
+            hits.increment();
+            ltLogger.info("Response cache hit for :- {}", key);
+            return entry.response;
+        }
+
+        if (entry != null && entry.hasValidators()) {
+            if (entry.etag != null) {
+                req.header(IF_NONE_MATCH, entry.etag);
+            }
+            if (entry.lastModified != null) {
+                req.header(IF_MODIFIED_SINCE, entry.lastModified);
+            }
+            Response response = req.get(uri);
+            if (response.getStatusCode() == NOT_MODIFIED) {
+                revalidations.increment();
+                ltLogger.info("Response cache revalidated (304) for :- {}", key);
+                entry.storedAtNanos = System.nanoTime();
+                return entry.response;
+            }
+            misses.increment();
+            return store(key, response);
+        }
+
+        misses.increment();
+        ltLogger.info("Response cache miss for :- {}", key);
+        return store(key, req.get(uri));
+    }
+
+    private Response store(String key, Response response) {
+        // Buffer the body so the response can be read again by later callers
+        response.asByteArray();
+
+        String cacheControl = response.getHeader(CACHE_CONTROL);
+        boolean noStore = cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-store");
+        synchronized (entries) {
+            if (response.getStatusCode() == 200 && !noStore) {
+                boolean alwaysRevalidate = cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-cache");
+                entries.put(key, new Entry(response, alwaysRevalidate));
+            } else {
+                entries.remove(key);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Removes every cached response. Counters are kept.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return The number of cached responses.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return The number of requests served from the cache without contacting the server.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of requests that downloaded a full response.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of stale entries confirmed unchanged by a 304 response.
+     */
+    public long getRevalidations() {
+        return revalidations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCache{size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses()
+                + ", revalidations=" + getRevalidations() + "}";
+    }
+
+    private class Entry {
+        private final Response response;
+        private final String etag;
+        private final String lastModified;
+        private final boolean alwaysRevalidate;
+        private volatile long storedAtNanos;
+
+        private Entry(Response response, boolean alwaysRevalidate) {
+            this.response = response;
+            this.etag = response.getHeader(ETAG);
+            this.lastModified = response.getHeader(LAST_MODIFIED);
+            this.alwaysRevalidate = alwaysRevalidate;
+            this.storedAtNanos = System.nanoTime();
+        }
+
+        private boolean isFresh(long now) {
+            return !alwaysRevalidate && now - storedAtNanos < ttlNanos;
+        }
+
+        private boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+    }
+}
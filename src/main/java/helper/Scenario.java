@@ -0,0 +1,17 @@
+package helper;
+
+/**
+ * The Scenario interface represents a UI flow that the {@link ScenarioRunner} runs once per capability profile,
+ * each time against its own browser session.
+ */
+@FunctionalInterface
+public interface Scenario {
+
+  /**
+   * Runs the flow against one session.
+   *
+   * @param driverHelper The WebDriverHelper bound to this run's session.
+   * @throws Exception If the flow fails; the failure is recorded for this session only.
+   */
+  void run(WebDriverHelper driverHelper) throws Exception;
+}
@@ -0,0 +1,77 @@
+package helper;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The ScenarioReport class aggregates the per-session results of one {@link ScenarioRunner} run.
+ */
+public class ScenarioReport {
+  private final List<ScenarioResult> results;
+  private final Duration wallTime;
+
+  /**
+   * Constructs a ScenarioReport.
+   *
+   * @param results  The per-session results, in profile order.
+   * @param wallTime The elapsed time of the whole run.
+   */
+  public ScenarioReport(List<ScenarioResult> results, Duration wallTime) {
+    this.results = List.copyOf(results);
+    this.wallTime = wallTime;
+  }
+
+  /**
+   * @return The per-session results, in profile order.
+   */
+  public List<ScenarioResult> getResults() {
+    return results;
+  }
+
+  /**
+   * @return The results of the sessions that failed.
+   */
+  public List<ScenarioResult> getFailures() {
+    return results.stream().filter(result -> !result.isPassed()).toList();
+  }
+
+  /**
+   * @return true if every session passed.
+   */
+  public boolean isAllPassed() {
+    return results.stream().allMatch(ScenarioResult::isPassed);
+  }
+
+  /**
+   * @return The elapsed time of the whole run.
+   */
+  public Duration getWallTime() {
+    return wallTime;
+  }
+
+  /**
+   * @return The sum of driver creation and scenario time over all sessions, i.e. the serial cost of the run.
+   */
+  public Duration getTotalSessionTime() {
+    return results.stream()
+        .map(result -> result.getDriverCreateTime().plus(result.getScenarioTime()))
+        .reduce(Duration.ZERO, Duration::plus);
+  }
+
+  /**
+   * Builds a multi-line human-readable summary with one line per session.
+   *
+   * @return The summary string.
+   */
+  public String summary() {
+    StringBuilder summary = new StringBuilder(String.format("Sessions :- %d, Passed :- %d, Failed :- %d, Wall time :- %d ms, Session time :- %d ms%n",
+        results.size(), results.size() - getFailures().size(), getFailures().size(), wallTime.toMillis(), getTotalSessionTime().toMillis()));
+    results.forEach(result -> summary.append("  ").append(result).append(System.lineSeparator()));
+    return summary.toString();
+  }
+
+  @Override
+  public String toString() {
+    return summary();
+  }
+}
@@ -0,0 +1,91 @@
+package helper;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The ScenarioResult class holds the outcome and timings of one scenario run on one capability profile.
+ */
+public class ScenarioResult {
+  private final String profile;
+  private final Map<String, Object> capabilities;
+  private final Throwable failure;
+  private final Duration queueTime;
+  private final Duration driverCreateTime;
+  private final Duration scenarioTime;
+
+  /**
+   * Constructs a ScenarioResult.
+   *
+   * @param profile          The name of the capability profile.
+   * @param capabilities     The capabilities the session was created with.
+   * @param failure          The failure raised while creating the session or running the scenario, or null on success.
+   * @param queueTime        The time spent waiting for a free concurrency slot.
+   * @param driverCreateTime The time spent creating the session.
+   * @param scenarioTime     The time spent running the scenario.
+   */
+  public ScenarioResult(String profile, Map<String, Object> capabilities, Throwable failure,
+                        Duration queueTime, Duration driverCreateTime, Duration scenarioTime) {
+    this.profile = profile;
+    this.capabilities = capabilities;
+    this.failure = failure;
+    this.queueTime = queueTime;
+    this.driverCreateTime = driverCreateTime;
+    this.scenarioTime = scenarioTime;
+  }
+
+  /**
+   * @return The name of the capability profile.
+   */
+  public String getProfile() {
+    return profile;
+  }
+
+  /**
+   * @return The capabilities the session was created with.
+   */
+  public Map<String, Object> getCapabilities() {
+    return capabilities;
+  }
+
+  /**
+   * @return true if the session was created and the scenario completed without throwing.
+   */
+  public boolean isPassed() {
+    return failure == null;
+  }
+
+  /**
+   * @return The failure, or null if the run passed.
+   */
+  public Throwable getFailure() {
+    return failure;
+  }
+
+  /**
+   * @return The time spent waiting for a free concurrency slot.
+   */
+  public Duration getQueueTime() {
+    return queueTime;
+  }
+
+  /**
+   * @return The time spent creating the session.
+   */
+  public Duration getDriverCreateTime() {
+    return driverCreateTime;
+  }
+
+  /**
+   * @return The time spent running the scenario.
+   */
+  public Duration getScenarioTime() {
+    return scenarioTime;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s :- %s (queue %d ms, driver %d ms, scenario %d ms)%s", profile, isPassed() ? "PASSED" : "FAILED",
+        queueTime.toMillis(), driverCreateTime.toMillis(), scenarioTime.toMillis(), isPassed() ? "" : " " + failure);
+  }
+}
@@ -0,0 +1,142 @@
+package helper;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import utility.CapabilitiesHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The ScenarioRunner class runs the same {@link Scenario} across many capability profiles at once, one virtual
+ * thread and one browser session per profile, with at most a fixed number of sessions open at a time.
+ * A failure in one session, whether during session creation or in the scenario, is recorded in its
+ * {@link ScenarioResult} and does not affect the others.
+ */
+public class ScenarioRunner {
+  private final Logger ltLogger = LogManager.getLogger(ScenarioRunner.class);
+
+  /**
+   * Creates the browser session for one capability profile.
+   */
+  @FunctionalInterface
+  public interface DriverFactory {
+
+    /**
+     * Creates a session.
+     *
+     * @param capabilities The capabilities of the profile.
+     * @return The created driver.
+     * @throws Exception If the session cannot be created.
+     */
+    WebDriver create(Map<String, Object> capabilities) throws Exception;
+  }
+
+  private final DriverFactory driverFactory;
+  private final int maxConcurrency;
+
+  /**
+   * Constructs a ScenarioRunner that creates sessions on a grid through {@link CapabilitiesHelper#driverCreate}.
+   *
+   * @param userName       The username for authentication.
+   * @param accessKey      The access key for authentication.
+   * @param gridUrl        The URL of the Selenium grid.
+   * @param maxConcurrency The maximum number of sessions open at the same time.
+   */
+  public ScenarioRunner(String userName, String accessKey, String gridUrl, int maxConcurrency) {
+    this(capabilities -> new CapabilitiesHelper(userName, accessKey, gridUrl).driverCreate(capabilities), maxConcurrency);
+  }
+
+  /**
+   * Constructs a ScenarioRunner with a custom session factory, for example a local driver.
+   *
+   * @param driverFactory  Creates the session for each profile.
+   * @param maxConcurrency The maximum number of sessions open at the same time.
+   */
+  public ScenarioRunner(DriverFactory driverFactory, int maxConcurrency) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("Concurrency must be at least 1: " + maxConcurrency);
+    }
+    this.driverFactory = driverFactory;
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  /**
+   * Runs the scenario once per profile and waits for every session to finish.
+   *
+   * @param profiles The capability profiles, keyed by a descriptive name. Iteration order is kept in the report.
+   * @param scenario The flow to run against each session.
+   * @return The aggregated per-session results and timings.
+   */
+  public ScenarioReport run(Map<String, Map<String, Object>> profiles, Scenario scenario) {
+    ltLogger.info("Running scenario on {} profiles with concurrency {}", profiles.size(), maxConcurrency);
+    Semaphore slots = new Semaphore(maxConcurrency, true);
+    long start = System.nanoTime();
+
+    List<Future<ScenarioResult>> futures = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      profiles.forEach((profile, capabilities) ->
+          futures.add(executor.submit(() -> runProfile(profile, capabilities, scenario, slots))));
+    }
+
+    List<ScenarioResult> results = new ArrayList<>();
+    for (Future<ScenarioResult> future : futures) {
+      try {
+        results.add(future.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while collecting scenario results", e);
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Scenario task failed unexpectedly", e.getCause());
+      }
+    }
+
+    ScenarioReport report = new ScenarioReport(results, Duration.ofNanos(System.nanoTime() - start));
+    ltLogger.info("Scenario run finished :- {}", report.summary());
+    return report;
+  }
+
+  private ScenarioResult runProfile(String profile, Map<String, Object> capabilities, Scenario scenario, Semaphore slots) {
+    long queued = System.nanoTime();
+    slots.acquireUninterruptibly();
+    long created = System.nanoTime();
+    long started = created;
+    WebDriver driver = null;
+    Throwable failure = null;
+    try {
+      driver = driverFactory.create(capabilities);
+      started = System.nanoTime();
+      scenario.run(new WebDriverHelper(driver));
+    } catch (Throwable t) {
+      failure = t;
+      ltLogger.error("Scenario failed on profile {} :- {}", profile, t.toString());
+    }
+    long finished = System.nanoTime();
+    if (driver == null) {
+      started = finished;
+    }
+    quit(profile, driver);
+    slots.release();
+    return new ScenarioResult(profile, capabilities, failure, Duration.ofNanos(created - queued),
+        Duration.ofNanos(started - created), Duration.ofNanos(finished - started));
+  }
+
+  private void quit(String profile, WebDriver driver) {
+    if (driver == null) {
+      return;
+    }
+    try {
+      driver.quit();
+    } catch (Exception e) {
+      ltLogger.warn("Failed to quit session for profile {} :- {}", profile, e.toString());
+    }
+  }
+}
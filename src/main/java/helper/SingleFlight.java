@@ -0,0 +1,106 @@
+package helper;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * The SingleFlight class coalesces concurrent calls that share a key. While a call for a key is in flight,
+ * later callers with the same key wait for its result instead of running the supplier themselves.
+ * Once the call completes the key is released, so results are never reused after the fact.
+ *
+ * @param <K> The key type.
+ * @param <V> The result type. Results are handed to several threads and should be safe to share.
+ */
+public class SingleFlight<K, V> {
+    private final Logger ltLogger = LogManager.getLogger(SingleFlight.class);
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder saved = new LongAdder();
+
+    /**
+     * Default constructor for the SingleFlight class.
+     * Initializes an instance with no calls in flight.
+     */
+    public SingleFlight() {
+        super();
+    }
+
+    /**
+     * Runs the supplier for the key, or waits for the identical call already in flight.
+     * If the leading call fails, every waiting caller receives the same exception.
+     *
+     * @param key      The key identifying identical calls.
+     * @param supplier The call to run when no identical call is in flight.
+     * @return         The result of the leading call.
+     */
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            saved.increment();
+            ltLogger.info("Joining in-flight request for :- {}", key);
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V value = supplier.get();
+            leader.complete(value);
+            return value;
+        } catch (Throwable t) {
+            leader.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return The number of calls currently in flight.
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * @return The number of calls that actually ran the supplier.
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * @return The number of calls that were served by joining an identical in-flight call.
+     */
+    public long getSaved() {
+        return saved.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "SingleFlight{inFlight=" + getInFlight() + ", executions=" + getExecutions() + ", saved=" + getSaved() + "}";
+    }
+}
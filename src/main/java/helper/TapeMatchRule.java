@@ -0,0 +1,119 @@
+package helper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The TapeMatchRule class decides which parts of a request identify it when an {@link HttpTape} replays it.
+ * By default the method, the URI path, every query parameter and the body take part, and no headers do;
+ * each of these can be relaxed or extended. The rule is applied when a tape is opened, so a tape recorded
+ * once can be replayed under different rules.
+ */
+public class TapeMatchRule {
+    private boolean matchBody = true;
+    private boolean matchAllQueryParams = true;
+    private final Set<String> ignoredQueryParams = new TreeSet<>();
+    private final Set<String> matchedHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * Default constructor for the TapeMatchRule class.
+     * Initializes a rule that matches on method, path, query parameters and body.
+     */
+    public TapeMatchRule() {
+        super();
+    }
+
+    /**
+     * Ignores the request body when matching.
+     *
+     * @return This rule.
+     */
+    public TapeMatchRule ignoreBody() {
+        this.matchBody = false;
+        return this;
+    }
+
+    /**
+     * Ignores the given query parameters when matching, for example timestamps or cache busters.
+     * With no names, every query parameter is ignored.
+     *
+     * @param names The query parameter names to ignore.
+     * @return This rule.
+     */
+    public TapeMatchRule ignoreQueryParams(String... names) {
+        if (names.length == 0) {
+            this.matchAllQueryParams = false;
+        } else {
+            ignoredQueryParams.addAll(Set.of(names));
+        }
+        return this;
+    }
+
+    /**
+     * Includes the given request headers when matching, for example Authorization or Accept.
+     *
+     * @param names The header names, compared case-insensitively.
+     * @return This rule.
+     */
+    public TapeMatchRule matchHeaders(String... names) {
+        matchedHeaders.addAll(Set.of(names));
+        return this;
+    }
+
+    /**
+     * Builds the key identifying a request under this rule.
+     *
+     * @param method   The HTTP method.
+     * @param uri      The full request URI, including any query string.
+     * @param headers  The request headers.
+     * @param bodyHash The SHA-256 hex digest of the request body from {@link #hashBody}, or an empty string.
+     * @return The request key.
+     */
+    public String key(String method, String uri, Map<String, Object> headers, String bodyHash) {
+        int queryStart = uri.indexOf('?');
+        String path = queryStart < 0 ? uri : uri.substring(0, queryStart);
+        Map<String, Object> queryParams = new HashMap<>();
+        if (queryStart >= 0 && matchAllQueryParams) {
+            for (String pair : uri.substring(queryStart + 1).split("&")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int equals = pair.indexOf('=');
+                String name = equals < 0 ? pair : pair.substring(0, equals);
+                if (!ignoredQueryParams.contains(name)) {
+                    queryParams.put(name, equals < 0 ? "" : pair.substring(equals + 1));
+                }
+            }
+        }
+
+        String key = method + " " + RequestKey.of(path, headers, queryParams, matchedHeaders::contains);
+        if (matchBody && !bodyHash.isEmpty()) {
+            key += " body:" + bodyHash;
+        }
+        return key;
+    }
+
+    /**
+     * Hashes a request body so it can be stored and compared compactly.
+     *
+     * @param body The request body, or null.
+     * @return The SHA-256 hex digest, or an empty string if there is no body.
+     */
+    public static String hashBody(String body) {
+        if (body == null || body.isEmpty()) {
+            return "";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
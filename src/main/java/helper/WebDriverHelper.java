@@ -5,10 +5,22 @@ import org.openqa.selenium.*;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import utility.AdaptiveWaitStats;
+import utility.CustomSoftAssert;
+import utility.EventJournal;
+import utility.LazyWebDriver;
+import utility.TestTimings;
 import utility.Utilities;
+import utility.VisualDiff;
+import utility.VisualDiffResult;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import static utility.WaitConstant.*;
 
@@ -19,6 +31,10 @@ import static utility.WaitConstant.*;
 public class WebDriverHelper extends Utilities {
   private final Logger ltLogger = LogManager.getLogger(WebDriverHelper.class);
   private final WebDriver driver;
+  private ElementCache elementCache;
+  private AdaptiveWaitStats adaptiveWaits;
+  private LocatorProfiler locatorProfiler;
+  private String journalSessionId;
 
   // Constants for locator strategies
   private static final String CLASS = "class";
@@ -60,19 +76,54 @@ public class WebDriverHelper extends Utilities {
 
   /**
    * Waits for an element to be present on the page and returns it.
+   * With adaptive waits enabled, the timeout and polling interval are derived from the locator's history
+   * and capped at the given timeout, and the observed appearance time is recorded.
    *
    * @param locator An array containing the locator strategy and value.
    * @param timeout The maximum time to wait for the element, in seconds.
    * @return The WebElement found by the locator.
    */
   public WebElement waitForElement(String[] locator, int timeout) {
+    long start = TestTimings.beginWait();
+    boolean success = false;
     try {
       ltLogger.info("Waiting for element using ['{}','{}']", locator[0], locator[1]);
       driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(0));
-      WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-      return wait.until(ExpectedConditions.presenceOfElementLocated(findElementBy(locator)));
+      WebElement element;
+      if (adaptiveWaits != null) {
+        element = waitForElementAdaptively(locator, timeout);
+      } else {
+        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
+        element = wait.until(ExpectedConditions.presenceOfElementLocated(findElementBy(locator)));
+      }
+      success = true;
+      if (locatorProfiler != null) {
+        locatorProfiler.record(driver, locator, Duration.ofNanos(System.nanoTime() - start));
+      }
+      return element;
     } finally {
+      TestTimings.endWait(start);
       driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(SHORT_WAIT_TIME));
+      journal("waitForElement", locator[0] + "=" + locator[1], start, success);
+    }
+  }
+
+  private WebElement waitForElementAdaptively(String[] locator, int timeout) {
+    String locatorKey = locator[0].toLowerCase() + "=" + locator[1];
+    Duration adaptiveTimeout = adaptiveWaits.timeoutFor(locatorKey, timeout);
+    Duration polling = adaptiveWaits.pollingFor(locatorKey);
+    ltLogger.info("Adaptive wait for ['{}','{}'] :- timeout {} ms, polling {} ms", locator[0], locator[1],
+        adaptiveTimeout.toMillis(), polling.toMillis());
+
+    long start = System.nanoTime();
+    try {
+      WebElement element = new WebDriverWait(driver, adaptiveTimeout, polling)
+          .until(ExpectedConditions.presenceOfElementLocated(findElementBy(locator)));
+      adaptiveWaits.record(locatorKey, Duration.ofNanos(System.nanoTime() - start));
+      return element;
+    } catch (TimeoutException e) {
+      adaptiveWaits.record(locatorKey, adaptiveTimeout);
+      throw e;
     }
   }
 
@@ -83,7 +134,15 @@ public class WebDriverHelper extends Utilities {
    */
   public void getURL(String url) {
     ltLogger.info("Opening URL: '{}'", url);
-    driver.get(url);
+    onPageChange();
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      driver.get(url);
+      success = true;
+    } finally {
+      journal("getURL", url, start, success);
+    }
   }
 
   /**
@@ -108,6 +167,7 @@ public class WebDriverHelper extends Utilities {
    * Refreshes the current page.
    */
   public void pageRefresh() {
+    onPageChange();
     driver.navigate().refresh();
   }
 
@@ -115,6 +175,7 @@ public class WebDriverHelper extends Utilities {
    * Navigates forward in the browser's history.
    */
   public void pageForward() {
+    onPageChange();
     driver.navigate().forward();
   }
 
@@ -122,11 +183,13 @@ public class WebDriverHelper extends Utilities {
    * Navigates backward in the browser's history.
    */
   public void pageBack() {
+    onPageChange();
     driver.navigate().back();
   }
 
   /**
    * Finds and returns a WebElement using the specified locator and wait time.
+   * When an element cache is set, a handle already located on the current page is returned without a remote call.
    *
    * @param locator  An array containing the locator strategy and value.
    * @param waitTime The maximum time to wait for the element, in seconds.
@@ -134,6 +197,9 @@ public class WebDriverHelper extends Utilities {
    */
   public WebElement getElement(String[] locator, int waitTime) {
     ltLogger.info("Finding element using ['{}','{}']", locator[0], locator[1]);
+    if (elementCache != null) {
+      return elementCache.get(locator, () -> waitForElement(locator, waitTime));
+    }
     return waitForElement(locator, waitTime);
   }
 
@@ -169,6 +235,82 @@ public class WebDriverHelper extends Utilities {
   }
 
 
+  // ELEMENT CACHE
+
+
+  /**
+   * Enables caching of element handles returned by {@link #getElement(String[], int)} for this session.
+   * The cache is cleared on every navigation made through this helper, and stale handles re-find themselves.
+   *
+   * @param elementCache The cache to use, or null to disable caching.
+   */
+  public void setElementCache(ElementCache elementCache) {
+    this.elementCache = elementCache;
+  }
+
+  /**
+   * Returns the element cache in use, for inspecting hit rate and saved round-trips.
+   *
+   * @return The ElementCache, or null if caching is disabled.
+   */
+  public ElementCache getElementCache() {
+    return elementCache;
+  }
+
+  private void onPageChange() {
+    if (elementCache != null) {
+      elementCache.invalidate();
+    }
+  }
+
+
+  // ADAPTIVE WAITS
+
+
+  /**
+   * Enables adaptive waits: element timeouts and polling intervals learned from previous runs
+   * instead of the fixed values passed by callers, which remain the upper bound.
+   *
+   * @param adaptiveWaits The statistics to learn from and record into, for example {@link AdaptiveWaitStats#shared()},
+   *                      or null to use fixed waits.
+   */
+  public void setAdaptiveWaits(AdaptiveWaitStats adaptiveWaits) {
+    this.adaptiveWaits = adaptiveWaits;
+  }
+
+  /**
+   * Returns the adaptive wait statistics in use.
+   *
+   * @return The AdaptiveWaitStats, or null if fixed waits are used.
+   */
+  public AdaptiveWaitStats getAdaptiveWaits() {
+    return adaptiveWaits;
+  }
+
+
+  // LOCATOR PROFILING
+
+
+  /**
+   * Enables locator profiling: every element lookup is timed, and the first lookups of each locator are also
+   * timed inside the page together with equivalent id, name and CSS locators. See {@link LocatorProfiler#report()}.
+   *
+   * @param locatorProfiler The profiler to record into, or null to disable profiling.
+   */
+  public void setLocatorProfiler(LocatorProfiler locatorProfiler) {
+    this.locatorProfiler = locatorProfiler;
+  }
+
+  /**
+   * Returns the locator profiler in use.
+   *
+   * @return The LocatorProfiler, or null if profiling is disabled.
+   */
+  public LocatorProfiler getLocatorProfiler() {
+    return locatorProfiler;
+  }
+
+
   // JAVASCRIPT EXECUTION
 
 
@@ -179,21 +321,123 @@ public class WebDriverHelper extends Utilities {
    */
   public void javascriptExecution(String script) {
     ltLogger.info("Executing script: {}", script);
+    long start = System.nanoTime();
+    boolean success = false;
     try {
       ((JavascriptExecutor) driver).executeScript(script);
+      success = true;
       ltLogger.info("Script executed successfully: {}", script);
     } catch (Exception e) {
       if (script.contains("console.error")) return;
       ltLogger.error("Script execution failed: {}", script);
       ltLogger.error("Exception: {}", e.toString());
       throw e;
+    } finally {
+      journal("javascriptExecution", null, start, success);
     }
   }
 
+  /**
+   * Waits until the page is ready: the document has loaded, no fetch or XMLHttpRequest started after the
+   * readiness tracker was installed is still in flight, and the DOM has not changed for the given quiet period.
+   * The wait is a single asynchronous script call that installs the tracker on the page if it is not there yet,
+   * which replaces a series of polling round-trips.
+   *
+   * @param quietMillis    How long the DOM and network must stay idle, in milliseconds.
+   * @param timeoutSeconds The maximum time to wait, in seconds.
+   * @throws TimeoutException If the page does not become ready within the timeout.
+   */
+  public void waitForPageReady(int quietMillis, int timeoutSeconds) {
+    ltLogger.info("Waiting for page to be quiet for {} ms (timeout {} s)", quietMillis, timeoutSeconds);
+    WebDriver.Timeouts timeouts = driver.manage().timeouts();
+    Duration previousScriptTimeout = timeouts.getScriptTimeout();
+    timeouts.scriptTimeout(Duration.ofSeconds(timeoutSeconds));
+    long start = TestTimings.beginWait();
+    boolean success = false;
+    try {
+      ((JavascriptExecutor) driver).executeAsyncScript(BrowserScripts.AWAIT_READINESS, quietMillis);
+      success = true;
+    } catch (ScriptTimeoutException e) {
+      throw new TimeoutException("Page did not become ready within " + timeoutSeconds + " seconds", e);
+    } finally {
+      TestTimings.endWait(start);
+      timeouts.scriptTimeout(previousScriptTimeout);
+      journal("waitForPageReady", null, start, success);
+    }
+  }
+
+  /**
+   * Waits until the page is ready, with a 500 ms quiet period and a timeout of {@code STANDARD_WAIT_TIME}.
+   */
+  public void waitForPageReady() {
+    waitForPageReady(500, STANDARD_WAIT_TIME);
+  }
+
+  /**
+   * Checks many element expectations with a single script call and feeds every result into the soft assert.
+   * Each mismatch is reported with the locator, the property checked, and the expected and actual values;
+   * an element that cannot be found counts as a failure.
+   *
+   * @param expectations The expectations to check.
+   * @param softAssert   The soft assert that collects the results.
+   * @return The number of expectations that did not hold.
+   */
+  @SuppressWarnings("unchecked")
+  public int assertElements(List<DomExpectation> expectations, CustomSoftAssert softAssert) {
+    ltLogger.info("Checking {} element expectations in one script call", expectations.size());
+    List<Map<String, Object>> arguments = expectations.stream().map(DomExpectation::toScriptArgument).toList();
+    long start = System.nanoTime();
+    List<Object> results = null;
+    try {
+      results = (List<Object>) ((JavascriptExecutor) driver).executeScript(BrowserScripts.INSPECT_ELEMENTS, arguments);
+    } finally {
+      journal("assertElements", expectations.size() + " expectations", start, results != null);
+    }
+
+    int mismatches = 0;
+    for (int i = 0; i < expectations.size(); i++) {
+      DomExpectation expectation = expectations.get(i);
+      Map<String, Object> result = (Map<String, Object>) results.get(i);
+      Object actual = result.get("actual");
+      if (!Boolean.TRUE.equals(result.get("found"))) {
+        mismatches++;
+        softAssert.assertTrue(false, () -> "Element not found for " + expectation + (actual == null ? "" : " :- " + actual));
+        continue;
+      }
+      if (!Objects.equals(actual, expectation.getExpected())) {
+        mismatches++;
+      }
+      softAssert.assertEquals(actual, expectation.getExpected(), expectation::toString);
+    }
+    return mismatches;
+  }
+
+  private void journal(String command, String target, long start, boolean success) {
+    if (EventJournal.current() == null) {
+      return;
+    }
+    EventJournal.log(EventJournal.Source.WEBDRIVER, command, target, journalSessionId(), start, success, 0);
+  }
+
+  private String journalSessionId() {
+    if (journalSessionId == null) {
+      // Never start a lazy session just to label an event
+      WebDriver session = driver;
+      if (session instanceof WrapsDriver wrapper && !LazyWebDriver.isUnstarted(session)) {
+        session = wrapper.getWrappedDriver();
+      }
+      if (session instanceof RemoteWebDriver remote && remote.getSessionId() != null) {
+        journalSessionId = remote.getSessionId().toString();
+      }
+    }
+    return journalSessionId;
+  }
+
   /**
    * Performs a hard refresh of the current page using JavaScript.
    */
   public void hardRefresh() {
+    onPageChange();
     ((JavascriptExecutor) driver).executeScript("location.reload(true);");
   }
 
@@ -207,7 +451,7 @@ public class WebDriverHelper extends Utilities {
    * @return A File object representing the screenshot of the entire page.
    */
   public File getPageScreenShotAsFile() {
-    return ((RemoteWebDriver) driver).getScreenshotAs(OutputType.FILE);
+    return ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
   }
 
   /**
@@ -219,7 +463,36 @@ public class WebDriverHelper extends Utilities {
    */
   public File getElementScreenshotAsFile(String[] locator) {
     ltLogger.info("get screenshot with locator using ['{}','{}']", locator[0], locator[1]);
-    return ((RemoteWebDriver) getElement(locator)).getScreenshotAs(OutputType.FILE);
+    return getElement(locator).getScreenshotAs(OutputType.FILE);
+  }
+
+  /**
+   * Takes a screenshot of the entire page and compares it with a baseline image.
+   * The screenshot is compared in memory, without writing it to a file first.
+   *
+   * @param baseline   The baseline image file.
+   * @param visualDiff The comparison settings, such as tolerance and ignore regions.
+   * @return The comparison result with the diff score and mask.
+   * @throws IOException If the baseline cannot be read or either image cannot be decoded.
+   */
+  public VisualDiffResult comparePageScreenshot(File baseline, VisualDiff visualDiff) throws IOException {
+    byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+    return visualDiff.compare(screenshot, Files.readAllBytes(baseline.toPath()));
+  }
+
+  /**
+   * Takes a screenshot of the element located by the provided locator and compares it with a baseline image.
+   *
+   * @param locator    An array containing the locator type (e.g., "id", "xpath") and the locator value.
+   * @param baseline   The baseline image file.
+   * @param visualDiff The comparison settings, such as tolerance and ignore regions relative to the element.
+   * @return The comparison result with the diff score and mask.
+   * @throws IOException If the baseline cannot be read or either image cannot be decoded.
+   */
+  public VisualDiffResult compareElementScreenshot(String[] locator, File baseline, VisualDiff visualDiff) throws IOException {
+    ltLogger.info("Comparing element screenshot using ['{}','{}'] with baseline {}", locator[0], locator[1], baseline);
+    byte[] screenshot = getElement(locator).getScreenshotAs(OutputType.BYTES);
+    return visualDiff.compare(screenshot, Files.readAllBytes(baseline.toPath()));
   }
 
 }
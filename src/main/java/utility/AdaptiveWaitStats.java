@@ -0,0 +1,260 @@
+package utility;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The AdaptiveWaitStats class learns how long each locator takes to appear and derives wait timeouts and
+ * polling intervals from that history instead of a fixed {@link WaitConstant} value. Appearance times are
+ * kept per locator in a small geometric histogram, persisted across runs in a compact binary file, and
+ * decayed over time so the numbers follow the application as it changes.
+ *
+ * <p>A locator with enough history gets a timeout of its observed p99 times a safety factor plus a margin,
+ * never more than the timeout the caller asked for. Locators without enough history keep the caller's timeout.
+ */
+public class AdaptiveWaitStats {
+    private static final Logger ltLogger = LogManager.getLogger(AdaptiveWaitStats.class);
+
+    private static final int FILE_MAGIC = 0x4C545741;
+    private static final int FILE_VERSION = 1;
+
+    private static final int BUCKETS = 48;
+    private static final double FIRST_BUCKET_MILLIS = 10;
+    private static final double BUCKET_GROWTH = 1.2;
+    private static final int DECAY_THRESHOLD = 1000;
+
+    private static final int MIN_SAMPLES = 5;
+    private static final double SAFETY_FACTOR = 1.5;
+    private static final Duration MARGIN = Duration.ofSeconds(1);
+    private static final Duration MIN_TIMEOUT = Duration.ofSeconds(WaitConstant.SHORTEST_WAIT_TIME);
+    private static final Duration MIN_POLLING = Duration.ofMillis(50);
+    private static final Duration DEFAULT_POLLING = Duration.ofMillis(500);
+
+    private static volatile AdaptiveWaitStats shared;
+
+    private final Path file;
+    private final Map<String, LocatorStats> locators = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an AdaptiveWaitStats backed by the given file, loading any history it already holds.
+     *
+     * @param file The statistics file. It is created on the first {@link #save()}.
+     */
+    public AdaptiveWaitStats(Path file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * Returns the statistics shared by the whole JVM, stored under the user directory and saved on shutdown.
+     *
+     * @return The shared AdaptiveWaitStats.
+     */
+    public static AdaptiveWaitStats shared() {
+        if (shared == null) {
+            synchronized (AdaptiveWaitStats.class) {
+                if (shared == null) {
+                    AdaptiveWaitStats stats = new AdaptiveWaitStats(Paths.get(System.getProperty(Constant.USER_DIR) + Constant.ADAPTIVE_WAIT_STATS_FILE));
+                    Runtime.getRuntime().addShutdownHook(new Thread(stats::save, "adaptive-wait-stats-save"));
+                    shared = stats;
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Records how long a locator took to appear. A wait that timed out should be recorded with the timeout
+     * it used, so that the next run widens the timeout instead of failing at the same point again.
+     *
+     * @param locatorKey The locator key, for example "id=login".
+     * @param elapsed    The time from the start of the wait until the element appeared or the wait gave up.
+     */
+    public void record(String locatorKey, Duration elapsed) {
+        locators.computeIfAbsent(locatorKey, key -> new LocatorStats()).record(elapsed.toMillis());
+    }
+
+    /**
+     * Derives the timeout for a locator from its history.
+     *
+     * @param locatorKey       The locator key, for example "id=login".
+     * @param requestedSeconds The timeout the caller asked for, used as the upper bound and as the fallback.
+     * @return The timeout to use.
+     */
+    public Duration timeoutFor(String locatorKey, int requestedSeconds) {
+        Duration requested = Duration.ofSeconds(requestedSeconds);
+        LocatorStats stats = locators.get(locatorKey);
+        if (stats == null || stats.count() < MIN_SAMPLES) {
+            return requested;
+        }
+        Duration learned = Duration.ofMillis((long) (stats.percentileMillis(99) * SAFETY_FACTOR)).plus(MARGIN);
+        if (learned.compareTo(MIN_TIMEOUT) < 0) {
+            learned = MIN_TIMEOUT;
+        }
+        return learned.compareTo(requested) < 0 ? learned : requested;
+    }
+
+    /**
+     * Derives the polling interval for a locator from its history: a fifth of its median appearance time,
+     * between 50 ms and 500 ms.
+     *
+     * @param locatorKey The locator key, for example "id=login".
+     * @return The polling interval to use.
+     */
+    public Duration pollingFor(String locatorKey) {
+        LocatorStats stats = locators.get(locatorKey);
+        if (stats == null || stats.count() < MIN_SAMPLES) {
+            return DEFAULT_POLLING;
+        }
+        long polling = (long) (stats.percentileMillis(50) / 5);
+        return Duration.ofMillis(Math.max(MIN_POLLING.toMillis(), Math.min(DEFAULT_POLLING.toMillis(), polling)));
+    }
+
+    /**
+     * Returns the observed appearance time of a locator at the given percentile.
+     *
+     * @param locatorKey The locator key, for example "id=login".
+     * @param percentile The percentile, between 0 and 100.
+     * @return The appearance time, or null if the locator has no history.
+     */
+    public Duration percentile(String locatorKey, double percentile) {
+        LocatorStats stats = locators.get(locatorKey);
+        return stats == null || stats.count() == 0 ? null : Duration.ofMillis((long) stats.percentileMillis(percentile));
+    }
+
+    /**
+     * Writes the statistics to the backing file, replacing it atomically.
+     */
+    public void save() {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Map<String, LocatorStats> snapshot = new HashMap<>(locators);
+            Path temp = Files.createTempFile(parent, "wait-stats", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeByte(FILE_VERSION);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, LocatorStats> entry : snapshot.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    entry.getValue().write(out);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            ltLogger.info("Saved wait statistics for {} locators to {}", snapshot.size(), file);
+        } catch (IOException e) {
+            ltLogger.error("Failed to save wait statistics to {} :- {}", file, e.toString());
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readByte() != FILE_VERSION) {
+                ltLogger.warn("Ignoring wait statistics file with unknown format :- {}", file);
+                return;
+            }
+            int entries = in.readInt();
+            for (int i = 0; i < entries; i++) {
+                String key = in.readUTF();
+                locators.put(key, LocatorStats.read(in));
+            }
+            ltLogger.info("Loaded wait statistics for {} locators from {}", entries, file);
+        } catch (IOException e) {
+            locators.clear();
+            ltLogger.error("Failed to load wait statistics from {} :- {}", file, e.toString());
+        }
+    }
+
+    private static class LocatorStats {
+        private final int[] counts = new int[BUCKETS];
+        private int total;
+
+        private synchronized void record(long millis) {
+            counts[bucket(millis)]++;
+            total++;
+            if (total > DECAY_THRESHOLD) {
+                // Halve the history so recent behaviour outweighs old runs
+                total = 0;
+                for (int i = 0; i < BUCKETS; i++) {
+                    counts[i] /= 2;
+                    total += counts[i];
+                }
+            }
+        }
+
+        private synchronized int count() {
+            return total;
+        }
+
+        private synchronized double percentileMillis(double percentile) {
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return upperBoundMillis(i);
+                }
+            }
+            return upperBoundMillis(BUCKETS - 1);
+        }
+
+        private static int bucket(long millis) {
+            if (millis <= FIRST_BUCKET_MILLIS) {
+                return 0;
+            }
+            int index = (int) Math.ceil(Math.log(millis / FIRST_BUCKET_MILLIS) / Math.log(BUCKET_GROWTH));
+            return Math.min(BUCKETS - 1, index);
+        }
+
+        private static double upperBoundMillis(int bucket) {
+            return FIRST_BUCKET_MILLIS * Math.pow(BUCKET_GROWTH, bucket);
+        }
+
+        private synchronized void write(DataOutputStream out) throws IOException {
+            int nonEmpty = 0;
+            for (int count : counts) {
+                if (count > 0) {
+                    nonEmpty++;
+                }
+            }
+            out.writeByte(nonEmpty);
+            for (int i = 0; i < BUCKETS; i++) {
+                if (counts[i] > 0) {
+                    out.writeByte(i);
+                    out.writeShort(Math.min(counts[i], Short.MAX_VALUE));
+                }
+            }
+        }
+
+        private static LocatorStats read(DataInputStream in) throws IOException {
+            LocatorStats stats = new LocatorStats();
+            int nonEmpty = in.readUnsignedByte();
+            for (int i = 0; i < nonEmpty; i++) {
+                int bucket = in.readUnsignedByte();
+                int count = in.readShort();
+                if (bucket < BUCKETS) {
+                    stats.counts[bucket] = count;
+                    stats.total += count;
+                }
+            }
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package utility;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The BootstrapOrchestrator class runs suite start-up work as a dependency graph instead of a fixed sequence.
+ * Each step starts on its own virtual thread as soon as the steps it depends on have finished, so independent
+ * work overlaps: the tunnel can start while capabilities are parsed, artifact directories are prepared and
+ * sessions for profiles that do not need the tunnel are already being created. When a step fails, the steps
+ * that depend on it are skipped and everything else still runs.
+ *
+ * <p>The returned {@link BootstrapReport} breaks the start-up time down along its critical path, which shows
+ * which chain of steps to shorten next. A typical set-up:
+ * <pre>{@code
+ * BootstrapReport report = new BootstrapOrchestrator()
+ *     .addStep("tunnel", results -> { tunnel.startTunnel(mode, 2); return tunnel; })
+ *     .addStep("capabilities", results -> capabilitiesHelper.appendDynamicCapability(caps))
+ *     .addStep("artifactDirs", results -> Files.createDirectories(artifactDir))
+ *     .addStep("publicSession", results -> capabilitiesHelper.driverCreate((Map<String, Object>) results.get("capabilities")), "capabilities")
+ *     .addStep("tunnelSession", results -> tunnelCapabilities.driverCreate(tunnelCaps), "tunnel")
+ *     .run();
+ * }</pre>
+ */
+public class BootstrapOrchestrator {
+    private final Logger ltLogger = LogManager.getLogger(BootstrapOrchestrator.class);
+
+    private final Map<String, BootstrapStep> steps = new LinkedHashMap<>();
+    private final Map<String, List<String>> dependencies = new LinkedHashMap<>();
+
+    /**
+     * Default constructor for the BootstrapOrchestrator class.
+     * Initializes an orchestrator with no steps.
+     */
+    public BootstrapOrchestrator() {
+        super();
+    }
+
+    /**
+     * Adds a step to the graph.
+     *
+     * @param name      The unique step name.
+     * @param step      The work to run.
+     * @param dependsOn The names of the steps that must finish before this one starts; none to start at once.
+     * @return This orchestrator.
+     */
+    public BootstrapOrchestrator addStep(String name, BootstrapStep step, String... dependsOn) {
+        if (steps.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate bootstrap step :- " + name);
+        }
+        steps.put(name, step);
+        dependencies.put(name, List.of(dependsOn));
+        return this;
+    }
+
+    /**
+     * Runs every step, each as soon as its dependencies have finished, and waits for all of them.
+     *
+     * @return The timings, results and critical path of the run.
+     * @throws IllegalArgumentException If a step depends on an unknown step or the steps form a cycle.
+     */
+    public BootstrapReport run() {
+        List<String> order = topologicalOrder();
+        ltLogger.info("Bootstrapping {} steps", order.size());
+
+        long runStart = System.nanoTime();
+        Map<String, CompletableFuture<Object>> futures = new HashMap<>();
+        Map<String, BootstrapReport.StepTiming> timings = new ConcurrentHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String name : order) {
+                List<String> dependsOn = dependencies.get(name);
+                List<CompletableFuture<Object>> upstream = dependsOn.stream().map(futures::get).toList();
+                CompletableFuture<Object> future = CompletableFuture.allOf(upstream.toArray(new CompletableFuture<?>[0]))
+                        .handleAsync((ignored, upstreamFailure) -> runStep(name, dependsOn, upstream, upstreamFailure, runStart, timings), executor);
+                futures.put(name, future);
+            }
+            // Wait here: closing the executor first would reject steps whose dependencies finish later
+            futures.values().forEach(future -> future.handle((result, failure) -> null).join());
+        }
+
+        Map<String, BootstrapReport.StepTiming> ordered = new LinkedHashMap<>();
+        Map<String, Object> results = new HashMap<>();
+        for (String name : steps.keySet()) {
+            ordered.put(name, timings.get(name));
+            CompletableFuture<Object> future = futures.get(name);
+            if (!future.isCompletedExceptionally()) {
+                results.put(name, future.join());
+            }
+        }
+        BootstrapReport report = new BootstrapReport(ordered, results, Duration.ofNanos(System.nanoTime() - runStart));
+        ltLogger.info("Bootstrap finished :- {}", report.summary());
+        return report;
+    }
+
+    private Object runStep(String name, List<String> dependsOn, List<CompletableFuture<Object>> upstream, Throwable upstreamFailure,
+                           long runStart, Map<String, BootstrapReport.StepTiming> timings) {
+        Duration start = Duration.ofNanos(System.nanoTime() - runStart);
+        if (upstreamFailure != null) {
+            Throwable cause = upstreamFailure instanceof CompletionException && upstreamFailure.getCause() != null
+                    ? upstreamFailure.getCause() : upstreamFailure;
+            timings.put(name, new BootstrapReport.StepTiming(name, dependsOn, start, start, cause, true));
+            ltLogger.warn("Skipping bootstrap step {} because a dependency failed", name);
+            throw new CompletionException(cause);
+        }
+
+        Map<String, Object> results = new HashMap<>();
+        for (int i = 0; i < dependsOn.size(); i++) {
+            results.put(dependsOn.get(i), upstream.get(i).join());
+        }
+        ltLogger.info("Starting bootstrap step :- {}", name);
+        try {
+            Object result = steps.get(name).run(results);
+            timings.put(name, new BootstrapReport.StepTiming(name, dependsOn, start, Duration.ofNanos(System.nanoTime() - runStart), null, false));
+            ltLogger.info("Finished bootstrap step {} in {} ms", name, timings.get(name).getDuration().toMillis());
+            return result;
+        } catch (Throwable e) {
+            // Errors such as AssertionError or NoClassDefFoundError need a timing too, or the report has a gap
+            timings.put(name, new BootstrapReport.StepTiming(name, dependsOn, start, Duration.ofNanos(System.nanoTime() - runStart), e, false));
+            ltLogger.error("Bootstrap step {} failed :- {}", name, e.toString());
+            throw new CompletionException(e);
+        }
+    }
+
+    private List<String> topologicalOrder() {
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        dependencies.forEach((name, dependsOn) -> {
+            for (String dependency : dependsOn) {
+                if (!steps.containsKey(dependency)) {
+                    throw new IllegalArgumentException("Bootstrap step " + name + " depends on unknown step " + dependency);
+                }
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(name);
+            }
+            pending.put(name, dependsOn.size());
+        });
+
+        Deque<String> ready = new ArrayDeque<>();
+        pending.forEach((name, count) -> {
+            if (count == 0) {
+                ready.add(name);
+            }
+        });
+        List<String> order = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            String name = ready.poll();
+            order.add(name);
+            for (String dependent : dependents.getOrDefault(name, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() != steps.size()) {
+            List<String> cyclic = steps.keySet().stream().filter(name -> !order.contains(name)).toList();
+            throw new IllegalArgumentException("Bootstrap steps form a dependency cycle :- " + cyclic);
+        }
+        return order;
+    }
+}
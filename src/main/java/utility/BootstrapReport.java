@@ -0,0 +1,233 @@
+package utility;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The BootstrapReport class holds the timings of one {@link BootstrapOrchestrator} run and the critical path
+ * through it: the chain of dependent steps that decided when start-up finished.
+ */
+public class BootstrapReport {
+    private final Map<String, StepTiming> steps;
+    private final Map<String, Object> results;
+    private final Duration wallTime;
+    private final List<StepTiming> criticalPath;
+
+    /**
+     * Constructs a BootstrapReport.
+     *
+     * @param steps    The timing of every step, in the order the steps were added.
+     * @param results  The results of the steps that succeeded, by step name.
+     * @param wallTime The elapsed time of the whole run.
+     */
+    public BootstrapReport(Map<String, StepTiming> steps, Map<String, Object> results, Duration wallTime) {
+        this.steps = Collections.unmodifiableMap(steps);
+        this.results = Collections.unmodifiableMap(results);
+        this.wallTime = wallTime;
+        this.criticalPath = computeCriticalPath();
+    }
+
+    /**
+     * @return The timing of every step, by step name, in the order the steps were added.
+     */
+    public Map<String, StepTiming> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Returns the result of a step.
+     *
+     * @param name The step name.
+     * @param type The expected type of the result.
+     * @param <T>  The result type.
+     * @return The result, or null if the step returned null, failed or was skipped.
+     */
+    public <T> T getResult(String name, Class<T> type) {
+        return type.cast(results.get(name));
+    }
+
+    /**
+     * @return true if every step succeeded.
+     */
+    public boolean isSuccessful() {
+        return steps.values().stream().allMatch(StepTiming::isSuccessful);
+    }
+
+    /**
+     * @return The steps that failed or were skipped because a dependency failed.
+     */
+    public List<StepTiming> getFailures() {
+        return steps.values().stream().filter(step -> !step.isSuccessful()).toList();
+    }
+
+    /**
+     * @return The elapsed time of the whole run.
+     */
+    public Duration getWallTime() {
+        return wallTime;
+    }
+
+    /**
+     * @return The sum of all step durations, i.e. how long start-up would take if the steps ran one after another.
+     */
+    public Duration getSerialTime() {
+        return steps.values().stream().map(StepTiming::getDuration).reduce(Duration.ZERO, Duration::plus);
+    }
+
+    /**
+     * @return The critical path, from the first step to the step that finished last.
+     */
+    public List<StepTiming> getCriticalPath() {
+        return criticalPath;
+    }
+
+    private List<StepTiming> computeCriticalPath() {
+        StepTiming last = null;
+        for (StepTiming step : steps.values()) {
+            if (last == null || step.getEnd().compareTo(last.getEnd()) > 0) {
+                last = step;
+            }
+        }
+        List<StepTiming> path = new ArrayList<>();
+        while (last != null) {
+            path.add(last);
+            // The dependency that finished last is the one this step actually waited for
+            StepTiming blocking = null;
+            for (String dependency : last.getDependsOn()) {
+                StepTiming candidate = steps.get(dependency);
+                if (blocking == null || candidate.getEnd().compareTo(blocking.getEnd()) > 0) {
+                    blocking = candidate;
+                }
+            }
+            last = blocking;
+        }
+        Collections.reverse(path);
+        return List.copyOf(path);
+    }
+
+    /**
+     * Builds a multi-line human-readable summary with the critical path and the remaining steps.
+     *
+     * @return The summary string.
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format("Bootstrap steps :- %d, Failed :- %d, Wall time :- %d ms, Serial time :- %d ms%n",
+                steps.size(), getFailures().size(), wallTime.toMillis(), getSerialTime().toMillis()));
+        summary.append("Critical path :-").append(System.lineSeparator());
+        Duration previousEnd = Duration.ZERO;
+        for (StepTiming step : criticalPath) {
+            Duration waited = step.getStart().minus(previousEnd);
+            summary.append(String.format("  %-24s %6d ms", step.getName(), step.getDuration().toMillis()));
+            if (waited.toMillis() > 0) {
+                summary.append(String.format(" (started %d ms after %s)", waited.toMillis(), step.getDependsOn().isEmpty() ? "the run" : "its dependency"));
+            }
+            summary.append(System.lineSeparator());
+            previousEnd = step.getEnd();
+        }
+        summary.append("All steps :-").append(System.lineSeparator());
+        steps.values().forEach(step -> summary.append("  ").append(step).append(System.lineSeparator()));
+        return summary.toString();
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+
+    /**
+     * The StepTiming class holds when one bootstrap step ran, relative to the start of the run, and how it ended.
+     */
+    public static class StepTiming {
+        private final String name;
+        private final List<String> dependsOn;
+        private final Duration start;
+        private final Duration end;
+        private final Throwable failure;
+        private final boolean skipped;
+
+        /**
+         * Constructs a StepTiming.
+         *
+         * @param name      The step name.
+         * @param dependsOn The names of the steps this step depends on.
+         * @param start     When the step started, relative to the start of the run.
+         * @param end       When the step finished, relative to the start of the run.
+         * @param failure   The failure raised by the step or its dependency, or null on success.
+         * @param skipped   true if the step did not run because a dependency failed.
+         */
+        public StepTiming(String name, List<String> dependsOn, Duration start, Duration end, Throwable failure, boolean skipped) {
+            this.name = name;
+            this.dependsOn = List.copyOf(dependsOn);
+            this.start = start;
+            this.end = end;
+            this.failure = failure;
+            this.skipped = skipped;
+        }
+
+        /**
+         * @return The step name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The names of the steps this step depends on.
+         */
+        public List<String> getDependsOn() {
+            return dependsOn;
+        }
+
+        /**
+         * @return When the step started, relative to the start of the run.
+         */
+        public Duration getStart() {
+            return start;
+        }
+
+        /**
+         * @return When the step finished, relative to the start of the run.
+         */
+        public Duration getEnd() {
+            return end;
+        }
+
+        /**
+         * @return How long the step ran.
+         */
+        public Duration getDuration() {
+            return end.minus(start);
+        }
+
+        /**
+         * @return true if the step ran and succeeded.
+         */
+        public boolean isSuccessful() {
+            return failure == null;
+        }
+
+        /**
+         * @return true if the step did not run because a dependency failed.
+         */
+        public boolean isSkipped() {
+            return skipped;
+        }
+
+        /**
+         * @return The failure raised by the step, or by the dependency that caused it to be skipped; null on success.
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        @Override
+        public String toString() {
+            String outcome = skipped ? "SKIPPED" : failure == null ? "OK" : "FAILED " + failure;
+            return String.format("%-24s %6d -> %6d ms (%d ms) after %s %s", name, start.toMillis(), end.toMillis(),
+                    getDuration().toMillis(), dependsOn.isEmpty() ? "start" : dependsOn, outcome);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package utility;
+
+import java.util.Map;
+
+/**
+ * The BootstrapStep interface represents one unit of suite start-up work run by {@link BootstrapOrchestrator},
+ * such as starting the tunnel, parsing capabilities or creating the first sessions.
+ */
+@FunctionalInterface
+public interface BootstrapStep {
+
+    /**
+     * Runs the step once every step it depends on has finished.
+     *
+     * @param results The results of the steps this step depends on, by step name.
+     * @return The step's result, made available to the steps that depend on it; may be null.
+     * @throws Exception If the step fails; the steps depending on it are then skipped.
+     */
+    Object run(Map<String, Object> results) throws Exception;
+}
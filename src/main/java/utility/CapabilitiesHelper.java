@@ -4,10 +4,25 @@ import org.apache.commons.lang3.time.StopWatch;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.HttpCommandExecutor;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.TracedCommandExecutor;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.tracing.TracedHttpClient;
+import org.openqa.selenium.remote.tracing.Tracer;
+import org.openqa.selenium.remote.tracing.opentelemetry.OpenTelemetryTracer;
 
+import java.io.IOException;
 import java.net.URI;
+import java.net.URL;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
@@ -28,6 +43,10 @@ public class CapabilitiesHelper extends WaitConstant {
     String gridUrl;
     Map<String, Object> ltOptions = new HashMap<>();
     DesiredCapabilities dc = new DesiredCapabilities();
+    private SessionScheduler sessionScheduler;
+    private String sessionSuite;
+    private int sessionPriority = SessionScheduler.PRIORITY_DEFAULT;
+    private CommandChannel commandChannel;
 
     /**
      * Default constructor for the CapabilitiesHelper class.
@@ -118,6 +137,7 @@ public class CapabilitiesHelper extends WaitConstant {
     /**
      * Creates a RemoteWebDriver instance with the specified capabilities.
      * Logs the capabilities, constructs the URI, measures driver creation time, and sets up implicit wait timeout.
+     * Every command the session sends afterwards is timed for the test's {@link TestTimings}.
      *
      * @param mapCapabilities A map of capabilities to be set for the driver.
      * @return A RemoteWebDriver instance or null if an exception occurs.
@@ -126,17 +146,111 @@ public class CapabilitiesHelper extends WaitConstant {
     public RemoteWebDriver driverCreate(Map<String, Object> mapCapabilities) throws Exception {
         dc.setCapability("lt:options", mapCapabilities);
         ltLogger.info("Capabilities :- {}", dc);
+        long start = System.nanoTime();
+        SessionScheduler.Lease lease = null;
+        if (sessionScheduler != null) {
+            lease = sessionScheduler.acquire(sessionSuite, sessionPriority);
+            ltLogger.info("Session slot acquired for suite {} after {} ms in queue", sessionSuite, lease.getQueueWait().toMillis());
+        }
         try {
             uri = new URI(HTTPS + userName + ":" + accessKey + "@" + gridUrl);
             ltLogger.info("URI :- {}", uri);
-            return new RemoteWebDriver(uri.toURL(), dc);
+            CommandExecutor executor = commandChannel == null
+                    ? defaultExecutor(uri.toURL())
+                    : commandChannel.executorFor(uri.toURL());
+            RemoteWebDriver driver = new RemoteWebDriver(new TimingCommandExecutor(executor), dc);
+            if (lease != null) {
+                sessionScheduler.attach(driver, lease);
+            }
+            return driver;
         } catch (Exception e) {
+            if (lease != null) {
+                lease.release();
+            }
             handleDriverCreationException(e);
+        } finally {
+            TestTimings.record(TestTimings.Category.DRIVER_CREATE, start);
         }
         return null;
     }
 
 
+    /**
+     * Routes session creation through a scheduler that keeps live sessions within the account's concurrency limit.
+     * {@link #driverCreate} then waits for a free slot, and {@code quitDriver} hands the slot to the next waiter.
+     * Share one scheduler between every CapabilitiesHelper of the run.
+     *
+     * @param sessionScheduler The scheduler to use, or null to create sessions without waiting.
+     * @param suite            The suite name used for fair sharing and queue wait reporting; required with a scheduler.
+     * @param priority         The priority of this helper's session requests; lower values are served first.
+     */
+    public void setSessionScheduler(SessionScheduler sessionScheduler, String suite, int priority) {
+        if (sessionScheduler != null && suite == null) {
+            throw new IllegalArgumentException("A suite name is required when scheduling sessions");
+        }
+        this.sessionScheduler = sessionScheduler;
+        this.sessionSuite = suite;
+        this.sessionPriority = priority;
+    }
+
+
+    /**
+     * Returns the session scheduler in use.
+     *
+     * @return The SessionScheduler, or null if sessions are created without waiting.
+     */
+    public SessionScheduler getSessionScheduler() {
+        return sessionScheduler;
+    }
+
+
+    /**
+     * Sends the WebDriver commands of sessions created by {@link #driverCreate} over a configured channel:
+     * one pooled HTTP client shared by all sessions to the same grid, with its own timeouts and HTTP version.
+     * Share one channel between every CapabilitiesHelper of the run.
+     *
+     * @param commandChannel The channel to use, or null for Selenium's default client per session.
+     */
+    public void setCommandChannel(CommandChannel commandChannel) {
+        this.commandChannel = commandChannel;
+    }
+
+
+    /**
+     * Returns the command channel in use.
+     *
+     * @return The CommandChannel, or null if each session uses Selenium's default client.
+     */
+    public CommandChannel getCommandChannel() {
+        return commandChannel;
+    }
+
+
+    /**
+     * Creates a WebDriver that starts its RemoteWebDriver session only when the first command is sent through it.
+     * Useful in setup methods whose tests may be skipped or never touch the browser; such tests cost no session.
+     * The returned driver also implements JavascriptExecutor, TakesScreenshot and the other RemoteWebDriver interfaces.
+     *
+     * @param mapCapabilities A map of capabilities to be set for the driver once the session starts.
+     * @return A lazy WebDriver proxy.
+     */
+    public WebDriver lazyDriverCreate(Map<String, Object> mapCapabilities) {
+        Map<String, Object> capabilities = new HashMap<>(mapCapabilities);
+        ltLogger.info("Deferring session creation until first use :- {}", capabilities);
+        return LazyWebDriver.create(() -> driverCreate(capabilities));
+    }
+
+
+    /**
+     * Returns the number of lazy drivers quit in this JVM without ever starting a session.
+     *
+     * @return The number of grid sessions avoided.
+     */
+    public static long getSessionsAvoided() {
+        return LazyWebDriver.getSessionsAvoided();
+    }
+
+
     /**
      * Quits the WebDriver session if it is not null.
      * Logs the appropriate message based on whether the driver was successfully closed or if it was null.
@@ -145,10 +259,86 @@ public class CapabilitiesHelper extends WaitConstant {
      */
     public void quitDriver(RemoteWebDriver driver) {
         if (driver != null) {
-            driver.quit();
+            try {
+                driver.quit();
+            } finally {
+                releaseSession(driver);
+            }
             ltLogger.info("Driver closed");
         } else {
             ltLogger.error("Driver object received is null");
         }
     }
+
+
+    /**
+     * Quits a WebDriver, which may be a lazy driver from {@link #lazyDriverCreate}.
+     * Nothing is sent to the grid if the lazy driver never started its session.
+     *
+     * @param driver The WebDriver instance to be closed.
+     */
+    public void quitDriver(WebDriver driver) {
+        if (driver == null) {
+            ltLogger.error("Driver object received is null");
+            return;
+        }
+        if (LazyWebDriver.isUnstarted(driver)) {
+            driver.quit();
+            ltLogger.info("Driver session was never started, nothing to close");
+            return;
+        }
+        WebDriver session = driver instanceof WrapsDriver wrapper ? wrapper.getWrappedDriver() : driver;
+        try {
+            driver.quit();
+        } finally {
+            releaseSession(session);
+        }
+        ltLogger.info("Driver closed");
+    }
+
+
+    /**
+     * Builds the executor that {@code new RemoteWebDriver(url, capabilities)} uses, including Selenium's
+     * OpenTelemetry tracing of commands and HTTP calls.
+     */
+    private static CommandExecutor defaultExecutor(URL remoteAddress) {
+        Tracer tracer = OpenTelemetryTracer.getInstance();
+        ClientConfig config = ClientConfig.defaultConfig().baseUrl(remoteAddress);
+        HttpCommandExecutor executor = new HttpCommandExecutor(Collections.emptyMap(), config,
+                new TracedHttpClient.Factory(tracer, HttpClient.Factory.createDefault()));
+        return new TracedCommandExecutor(executor, tracer);
+    }
+
+
+    private void releaseSession(WebDriver driver) {
+        if (sessionScheduler != null && sessionScheduler.release(driver)) {
+            ltLogger.info("Session slot released for suite {}", sessionSuite);
+        }
+    }
+
+
+    /**
+     * Times every command of a session, whether a helper, the driver itself or a WebElement sent it.
+     */
+    private static final class TimingCommandExecutor implements CommandExecutor {
+        private final CommandExecutor delegate;
+
+        private TimingCommandExecutor(CommandExecutor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Command command) throws IOException {
+            if (DriverCommand.NEW_SESSION.equals(command.getName())) {
+                // Already counted by driverCreate as driver creation
+                return delegate.execute(command);
+            }
+            long start = System.nanoTime();
+            try {
+                return delegate.execute(command);
+            } finally {
+                TestTimings.recordCommand(start);
+            }
+        }
+    }
 }
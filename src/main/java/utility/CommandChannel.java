@@ -0,0 +1,273 @@
+package utility;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CommandChannel class configures the HTTP channel that RemoteWebDriver commands travel over. By default
+ * every session opens its own HTTP client and so its own connections; sessions created through one
+ * CommandChannel share a single client, and with it the connection pool, per grid address and credentials.
+ * On runs with many parallel sessions this saves a TLS handshake for most commands instead of one per session.
+ *
+ * <p>The channel also sets the connection and read timeouts, the HTTP version (HTTP/2, negotiated over TLS and
+ * falling back to HTTP/1.1 if the grid does not offer it) and optional per-command timeouts, so a
+ * {@code findElement} can fail fast while {@code newSession} keeps the long default. Share one instance between
+ * every {@link CapabilitiesHelper} of the run with {@link CapabilitiesHelper#setCommandChannel}, and close it
+ * once all sessions have quit.
+ *
+ * <p>A per-command timeout only stops waiting for the response. The request has already gone to the grid and is
+ * not aborted, so the command may still run after the caller got its {@link TimeoutException}. Set per-command
+ * timeouts on read-only commands such as {@code findElement} or {@code getTitle}; on commands that change the page,
+ * such as a click or a navigation, a timeout makes the command fire-and-forget.
+ *
+ * <p>The JDK HTTP client keeps idle connections for {@code jdk.httpclient.keepalive.timeout} seconds and
+ * pools without limit unless {@code jdk.httpclient.connectionPoolSize} is set; both are JVM system properties.
+ */
+public class CommandChannel implements Closeable {
+    private final Logger ltLogger = LogManager.getLogger(CommandChannel.class);
+
+    /** HTTP/2 where the grid supports it, otherwise HTTP/1.1. */
+    public static final String HTTP_2 = "HTTP_2";
+    /** HTTP/1.1 only. */
+    public static final String HTTP_1_1 = "HTTP_1_1";
+
+    private final Map<String, SharedClient> clients = new ConcurrentHashMap<>();
+    private final Map<String, Duration> commandTimeouts = new ConcurrentHashMap<>();
+    private final HttpClient.Factory clientFactory = HttpClient.Factory.createDefault();
+    private final SharedClientFactory sharedClientFactory = new SharedClientFactory();
+    private volatile Duration connectionTimeout = Duration.ofSeconds(10);
+    private volatile Duration readTimeout = Duration.ofMinutes(3);
+    private volatile String httpVersion = HTTP_2;
+
+    /**
+     * Default constructor for the CommandChannel class.
+     * Initializes a channel with Selenium's default timeouts and HTTP/2.
+     */
+    public CommandChannel() {
+        super();
+    }
+
+    /**
+     * Sets how long opening a connection to the grid may take. Applies to clients created afterwards.
+     *
+     * @param connectionTimeout The connection timeout.
+     */
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    /**
+     * @return The connection timeout.
+     */
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    /**
+     * Sets how long a command without its own timeout may wait for the grid's response.
+     * Applies to clients created afterwards.
+     *
+     * @param readTimeout The default command timeout.
+     */
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * @return The default command timeout.
+     */
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Sets the HTTP version for clients created afterwards.
+     *
+     * @param httpVersion {@link #HTTP_2} or {@link #HTTP_1_1}.
+     */
+    public void setHttpVersion(String httpVersion) {
+        if (!HTTP_2.equals(httpVersion) && !HTTP_1_1.equals(httpVersion)) {
+            throw new IllegalArgumentException("Unsupported HTTP version :- " + httpVersion);
+        }
+        this.httpVersion = httpVersion;
+    }
+
+    /**
+     * @return The HTTP version.
+     */
+    public String getHttpVersion() {
+        return httpVersion;
+    }
+
+    /**
+     * Sets the timeout of one WebDriver command, overriding the read timeout for it.
+     * A command that runs out of time fails with a {@link TimeoutException}, but the grid is not told to stop it
+     * and may still carry it out later. Use this for read-only commands; a click or a navigation that times out
+     * may still take effect, and the session may be busy with it when the next command arrives.
+     *
+     * @param commandName The command name, for example {@code DriverCommand.FIND_ELEMENT}.
+     * @param timeout     The timeout, or null to use the read timeout again.
+     */
+    public void setCommandTimeout(String commandName, Duration timeout) {
+        if (timeout == null) {
+            commandTimeouts.remove(commandName);
+        } else {
+            commandTimeouts.put(commandName, timeout);
+        }
+    }
+
+    /**
+     * @return The per-command timeouts, by command name.
+     */
+    public Map<String, Duration> getCommandTimeouts() {
+        return Collections.unmodifiableMap(commandTimeouts);
+    }
+
+    /**
+     * @return The number of HTTP clients open, one per grid address and credentials in use.
+     */
+    public int getOpenClients() {
+        return clients.size();
+    }
+
+    /**
+     * Creates the command executor for a new session. Sessions to the same address share one HTTP client.
+     *
+     * @param remoteAddress The grid address, including credentials if the grid expects them in the URL.
+     * @return The executor to pass to {@code new RemoteWebDriver(executor, capabilities)}.
+     */
+    public CommandExecutor executorFor(URL remoteAddress) {
+        ClientConfig config = ClientConfig.defaultConfig()
+                .baseUrl(remoteAddress)
+                .connectionTimeout(connectionTimeout)
+                .readTimeout(clientReadTimeout())
+                .version(httpVersion);
+        return new TimedCommandExecutor(config);
+    }
+
+    /**
+     * Closes every shared HTTP client. Call once all sessions created through this channel have quit.
+     */
+    @Override
+    public void close() {
+        clients.values().forEach(client -> client.delegate.close());
+        ltLogger.info("Closed {} shared WebDriver HTTP clients", clients.size());
+        clients.clear();
+    }
+
+    private Duration clientReadTimeout() {
+        // The client itself must allow the longest command; shorter ones are cut off by TimedCommandExecutor
+        Duration longest = readTimeout;
+        for (Duration timeout : commandTimeouts.values()) {
+            if (timeout.compareTo(longest) > 0) {
+                longest = timeout;
+            }
+        }
+        return longest;
+    }
+
+    private static String clientKey(ClientConfig config) {
+        return config.baseUri() + "|" + config.connectionTimeout() + "|" + config.readTimeout() + "|" + config.version();
+    }
+
+    private final class SharedClientFactory implements HttpClient.Factory {
+        @Override
+        public HttpClient createClient(ClientConfig config) {
+            return clients.computeIfAbsent(clientKey(config), key -> {
+                ltLogger.info("Opening shared WebDriver HTTP client for {} over {}", config.baseUri().getHost(), config.version());
+                return new SharedClient(clientFactory.createClient(config));
+            });
+        }
+    }
+
+    /**
+     * An HTTP client used by many sessions; a session quitting must not close it for the others.
+     */
+    private static final class SharedClient implements HttpClient {
+        private final HttpClient delegate;
+
+        private SharedClient(HttpClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            return delegate.execute(request);
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return delegate.openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+            // Closed by CommandChannel.close()
+        }
+    }
+
+    private final class TimedCommandExecutor extends HttpCommandExecutor {
+        private final Duration clientReadTimeout;
+
+        private TimedCommandExecutor(ClientConfig config) {
+            super(Collections.emptyMap(), config, sharedClientFactory);
+            this.clientReadTimeout = config.readTimeout();
+        }
+
+        @Override
+        public Response execute(Command command) throws IOException {
+            Duration timeout = commandTimeouts.getOrDefault(command.getName(), readTimeout);
+            if (timeout.compareTo(clientReadTimeout) >= 0) {
+                return super.execute(command);
+            }
+
+            FutureTask<Response> call = new FutureTask<>(() -> super.execute(command));
+            Thread.startVirtualThread(call);
+            try {
+                return call.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (java.util.concurrent.TimeoutException e) {
+                // Only frees the local thread; the request is already with the grid, which may still run the command
+                call.cancel(true);
+                throw new TimeoutException("WebDriver command " + command.getName() + " did not complete within " + timeout.toMillis()
+                        + " ms; the grid may still carry it out");
+            } catch (InterruptedException e) {
+                call.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for WebDriver command " + command.getName(), e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException ioException) {
+                    throw ioException;
+                }
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+}
@@ -47,6 +47,27 @@ public class Constant {
     protected static final String[] TUNNEL_MODES = new String[]{"tcp", "ssh"};
 
 
+    // ADAPTIVE WAIT CONFIGURATIONS
+
+    /**
+     * The file path, relative to the user directory, where learned wait statistics are persisted across runs.
+     */
+    protected static final String ADAPTIVE_WAIT_STATS_FILE = "/.ltqa/adaptive-wait-stats.bin";
+
+
+    // TIMING REPORT CONFIGURATIONS
+
+    /**
+     * The system property naming the directory the per-test timing report is written to.
+     */
+    protected static final String TIMING_REPORT_PROPERTY = "TIMING_REPORT";
+
+    /**
+     * The directory, relative to the user directory, the per-test timing report is written to by default.
+     */
+    protected static final String TIMING_REPORT_DIRECTORY = "/reports/timings/";
+
+
     // STRING AND BOOLEAN CONSTANTS
 
     /**
@@ -1,19 +1,166 @@
 package utility;
 
 import org.apache.logging.log4j.*;
+import org.testng.asserts.IAssert;
 import org.testng.asserts.SoftAssert;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static utility.Constant.NEW_LINE;
+
 /**
  * The CustomSoftAssert class extends SoftAssert to provide custom assertion functionality.
+ * Unlike TestNG's SoftAssert it can be shared between the threads of a parallel scenario: failures are
+ * collected lock-free, only the first {@code maxStoredFailures} messages are kept to bound memory, and
+ * {@link #assertAll()} reports everything as one merged summary. The {@code Supplier<String>} overloads build
+ * their message only when the check fails, so a passing check costs a comparison and a counter increment.
  */
 public class CustomSoftAssert extends SoftAssert {
     private final Logger ltLogger = LogManager.getLogger(CustomSoftAssert.class);
 
+    private static final int DEFAULT_MAX_STORED_FAILURES = 100;
+    private static final String DEFAULT_SOFT_ASSERT_MESSAGE = "The following asserts failed:";
+
+    private final int maxStoredFailures;
+    private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger storedFailures = new AtomicInteger();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder passCount = new LongAdder();
+
     /**
      * Default constructor for the CustomSoftAssert class.
-     * Initializes an instance of CustomSoftAssert with default settings.
+     * Initializes an instance of CustomSoftAssert that keeps up to 100 failure messages.
      */
     public CustomSoftAssert() {
+        this(DEFAULT_MAX_STORED_FAILURES);
+    }
+
+    /**
+     * Constructs a CustomSoftAssert that keeps at most the given number of failure messages.
+     * Failures beyond the cap are still counted and reported in the summary.
+     *
+     * @param maxStoredFailures The maximum number of failure messages kept in memory.
+     */
+    public CustomSoftAssert(int maxStoredFailures) {
         super();
+        this.maxStoredFailures = maxStoredFailures;
+    }
+
+    @Override
+    protected void doAssert(IAssert<?> a) {
+        onBeforeAssert(a);
+        try {
+            a.doAssert();
+            onAssertSuccess(a);
+            passCount.increment();
+        } catch (AssertionError ex) {
+            onAssertFailure(a, ex);
+            recordFailure(ex.getMessage());
+        } finally {
+            onAfterAssert(a);
+        }
+    }
+
+    /**
+     * Checks that a condition is true, building the failure message only if it is not.
+     *
+     * @param condition The condition to check.
+     * @param message   Supplies the failure message.
+     */
+    public void assertTrue(boolean condition, Supplier<String> message) {
+        if (condition) {
+            passCount.increment();
+        } else {
+            recordFailure(message.get());
+        }
+    }
+
+    /**
+     * Checks that a condition is false, building the failure message only if it is not.
+     *
+     * @param condition The condition to check.
+     * @param message   Supplies the failure message.
+     */
+    public void assertFalse(boolean condition, Supplier<String> message) {
+        assertTrue(!condition, message);
+    }
+
+    /**
+     * Checks that two values are equal, building the failure message only if they are not.
+     *
+     * @param actual   The actual value.
+     * @param expected The expected value.
+     * @param message  Supplies the failure message; the expected and actual values are appended to it.
+     */
+    public void assertEquals(Object actual, Object expected, Supplier<String> message) {
+        if (Objects.equals(actual, expected)) {
+            passCount.increment();
+        } else {
+            recordFailure(message.get() + " expected [" + expected + "] but found [" + actual + "]");
+        }
+    }
+
+    private void recordFailure(String message) {
+        failureCount.increment();
+        if (storedFailures.incrementAndGet() <= maxStoredFailures) {
+            failures.add(message);
+        }
+        ltLogger.error("Soft assertion failed :- {}", message);
+    }
+
+    @Override
+    public void assertAll() {
+        assertAll(null);
+    }
+
+    @Override
+    public void assertAll(String message) {
+        long failed = failureCount.sum();
+        if (failed == 0) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder(message == null ? DEFAULT_SOFT_ASSERT_MESSAGE : message);
+        boolean first = true;
+        for (String failure : failures) {
+            if (!first) {
+                summary.append(',');
+            }
+            first = false;
+            summary.append(NEW_LINE).append('\t').append(failure);
+        }
+        long omitted = failed - failures.size();
+        if (omitted > 0) {
+            summary.append(NEW_LINE).append("\t... and ").append(omitted).append(" more failure(s) not stored");
+        }
+        summary.append(NEW_LINE).append(failed).append(" of ").append(failed + passCount.sum()).append(" checks failed");
+        throw new AssertionError(summary.toString());
+    }
+
+    /**
+     * @return The number of checks that passed.
+     */
+    public long getPassCount() {
+        return passCount.sum();
+    }
+
+    /**
+     * @return The number of checks that failed, including those whose message was not stored.
+     */
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    /**
+     * @return The stored failure messages, in the order they were recorded.
+     */
+    public List<String> getFailures() {
+        return new ArrayList<>(failures);
     }
 }
@@ -0,0 +1,283 @@
+package utility;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The EventJournal class records what the helpers do (API calls, WebDriver commands, tunnel and artifact
+ * operations) as fixed-layout binary events in memory-mapped segment files, so a run's timeline can be rebuilt
+ * afterwards with {@link EventJournalReader} instead of by parsing log text.
+ *
+ * <p>Every record is 64 bytes. A writer claims its slot with a single atomic increment and fills it with plain
+ * stores into the mapped segment, so threads never block each other; a record's type byte is written last, so
+ * a slot that is claimed but not yet filled reads as empty. Strings such as command names, URLs and session
+ * ids are written once as dictionary records and referred to by number afterwards. Segments are created on
+ * demand and the operating system writes them back, so a crashed run still leaves a readable journal.
+ *
+ * <p>Journaling is off unless a journal is installed with {@link #install(EventJournal)} or the
+ * {@code EVENT_JOURNAL} system property names a directory; while off, {@link #log} costs one volatile read.
+ */
+public class EventJournal implements Closeable {
+    private static final Logger ltLogger = LogManager.getLogger(EventJournal.class);
+
+    /**
+     * The helper that produced an event.
+     */
+    public enum Source {
+        API, WEBDRIVER, TUNNEL, ARTIFACTS, OTHER
+    }
+
+    static final int MAGIC = 0x4C54454A;
+    static final int VERSION = 1;
+    static final int RECORD_SIZE = 64;
+    static final int HEADER_SIZE = RECORD_SIZE;
+    static final byte TYPE_EVENT = 1;
+    static final byte TYPE_STRING = 2;
+    static final int MAX_STRING_BYTES = 1024;
+    static final String FILE_SUFFIX = ".journal";
+
+    private static final int DEFAULT_SEGMENT_RECORDS = 1 << 18;
+    private static final int MAX_DICTIONARY_ENTRIES = 1 << 20;
+    private static final String OVERFLOW = "<dictionary full>";
+    private static final String JOURNAL_PROPERTY = "EVENT_JOURNAL";
+
+    private static volatile EventJournal current = fromSystemProperty();
+
+    private final Path directory;
+    private final String filePrefix;
+    private final long journalId = ThreadLocalRandom.current().nextLong();
+    private final int segmentRecords;
+    private final AtomicLong nextSlot = new AtomicLong();
+    private final Map<Long, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+    private final Map<String, Integer> dictionary = new ConcurrentHashMap<>();
+    private final AtomicInteger nextStringId = new AtomicInteger(1);
+    private volatile boolean closed;
+
+    /**
+     * Opens a journal writing 16 MB segments into the given directory.
+     *
+     * @param directory The journal directory; created if it does not exist. Several runs may share it.
+     */
+    public EventJournal(Path directory) {
+        this(directory, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    /**
+     * Opens a journal.
+     *
+     * @param directory      The journal directory; created if it does not exist. Several runs may share it.
+     * @param segmentRecords The number of 64-byte records per segment file.
+     */
+    public EventJournal(Path directory, int segmentRecords) {
+        if (segmentRecords < MAX_STRING_BYTES / RECORD_SIZE + 1 || segmentRecords > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE) {
+            throw new IllegalArgumentException("Unsupported number of records per segment :- " + segmentRecords);
+        }
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.filePrefix = "events-" + System.currentTimeMillis() + "-" + ProcessHandle.current().pid() + "-" + Long.toHexString(journalId) + "-";
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create event journal directory " + directory, e);
+        }
+        ltLogger.info("Event journal writing to {}", directory);
+    }
+
+    /**
+     * Makes a journal the one the helpers write to.
+     *
+     * @param journal The journal, or null to turn journaling off.
+     */
+    public static void install(EventJournal journal) {
+        current = journal;
+    }
+
+    /**
+     * @return The installed journal, or null if journaling is off.
+     */
+    public static EventJournal current() {
+        return current;
+    }
+
+    /**
+     * Records an event that ends now in the installed journal. Does nothing if journaling is off.
+     *
+     * @param source     The helper that produced the event.
+     * @param command    The operation, for example "GET" or "waitForElement".
+     * @param target     What the operation acted on, for example a URI or locator; may be null.
+     * @param session    The session or tunnel the operation belongs to; may be null.
+     * @param startNanos The {@link System#nanoTime()} at which the operation started.
+     * @param success    Whether the operation succeeded.
+     * @param value      A number describing the outcome, for example a status code or a byte count.
+     */
+    public static void log(Source source, String command, String target, String session, long startNanos, boolean success, long value) {
+        EventJournal journal = current;
+        if (journal != null) {
+            journal.record(source, command, target, session, startNanos, System.nanoTime(), success, value);
+        }
+    }
+
+    /**
+     * Records an event.
+     *
+     * @param source     The helper that produced the event.
+     * @param command    The operation, for example "GET" or "waitForElement".
+     * @param target     What the operation acted on, for example a URI or locator; may be null.
+     * @param session    The session or tunnel the operation belongs to; may be null.
+     * @param startNanos The {@link System#nanoTime()} at which the operation started.
+     * @param endNanos   The {@link System#nanoTime()} at which the operation ended.
+     * @param success    Whether the operation succeeded.
+     * @param value      A number describing the outcome, for example a status code or a byte count.
+     */
+    public void record(Source source, String command, String target, String session, long startNanos, long endNanos, boolean success, long value) {
+        if (closed) {
+            return;
+        }
+        try {
+            int commandId = intern(command);
+            int targetId = intern(target);
+            int sessionId = intern(session);
+            long slot = claim(1);
+            MappedByteBuffer segment = segment(slot / segmentRecords);
+            int offset = offset(slot);
+            segment.put(offset + 1, (byte) source.ordinal());
+            segment.put(offset + 2, (byte) (success ? 1 : 0));
+            segment.putInt(offset + 4, commandId);
+            segment.putLong(offset + 8, startNanos);
+            segment.putLong(offset + 16, endNanos);
+            segment.putInt(offset + 24, sessionId);
+            segment.putInt(offset + 28, targetId);
+            segment.putLong(offset + 32, Thread.currentThread().threadId());
+            segment.putLong(offset + 40, value);
+            segment.put(offset, TYPE_EVENT);
+        } catch (RuntimeException e) {
+            // Journaling must never fail the test it is observing
+            ltLogger.warn("Failed to write event journal record :- {}", e.toString());
+        }
+    }
+
+    /**
+     * @return The number of record slots used so far, including dictionary records.
+     */
+    public long getRecordCount() {
+        return nextSlot.get();
+    }
+
+    /**
+     * Flushes every segment to disk and stops recording. Uninstalls the journal if it is the installed one.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (current == this) {
+            current = null;
+        }
+        segments.values().forEach(MappedByteBuffer::force);
+        ltLogger.info("Event journal closed after {} records in {} segments", nextSlot.get(), segments.size());
+    }
+
+    private int intern(String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer id = dictionary.get(value);
+        if (id != null) {
+            return id;
+        }
+        if (dictionary.size() >= MAX_DICTIONARY_ENTRIES) {
+            return value.equals(OVERFLOW) ? 0 : intern(OVERFLOW);
+        }
+        return dictionary.computeIfAbsent(value, this::writeString);
+    }
+
+    private int writeString(String value) {
+        int id = nextStringId.getAndIncrement();
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_STRING_BYTES);
+        int slots = (8 + length + RECORD_SIZE - 1) / RECORD_SIZE;
+        long slot = claim(slots);
+        MappedByteBuffer segment = segment(slot / segmentRecords);
+        int offset = offset(slot);
+        segment.putShort(offset + 2, (short) length);
+        segment.putInt(offset + 4, id);
+        segment.put(offset + 8, bytes, 0, length);
+        segment.put(offset, TYPE_STRING);
+        return id;
+    }
+
+    private long claim(int slots) {
+        while (true) {
+            long first = nextSlot.getAndAdd(slots);
+            // A multi-slot record may not straddle two segments; the skipped slots stay empty
+            if (first / segmentRecords == (first + slots - 1) / segmentRecords) {
+                return first;
+            }
+        }
+    }
+
+    private int offset(long slot) {
+        return HEADER_SIZE + (int) (slot % segmentRecords) * RECORD_SIZE;
+    }
+
+    private MappedByteBuffer segment(long index) {
+        MappedByteBuffer segment = segments.get(index);
+        if (segment != null) {
+            return segment;
+        }
+        synchronized (segments) {
+            return segments.computeIfAbsent(index, this::createSegment);
+        }
+    }
+
+    private MappedByteBuffer createSegment(long index) {
+        Path file = directory.resolve(filePrefix + String.format("%06d", index) + FILE_SUFFIX);
+        long size = HEADER_SIZE + (long) segmentRecords * RECORD_SIZE;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            Instant now = Instant.now();
+            segment.putInt(0, MAGIC);
+            segment.putInt(4, VERSION);
+            segment.putLong(8, journalId);
+            segment.putLong(16, now.getEpochSecond() * 1_000_000_000L + now.getNano());
+            segment.putLong(24, System.nanoTime());
+            segment.putInt(32, segmentRecords);
+            segment.putLong(40, index);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create event journal segment " + file, e);
+        }
+    }
+
+    private static EventJournal fromSystemProperty() {
+        String directory = System.getProperty(JOURNAL_PROPERTY, "");
+        if (directory.isEmpty()) {
+            return null;
+        }
+        try {
+            EventJournal journal = new EventJournal(Paths.get(directory));
+            Runtime.getRuntime().addShutdownHook(new Thread(journal::close, "event-journal-close"));
+            return journal;
+        } catch (RuntimeException e) {
+            // Runs in the static initialiser, where a failure would break every later log call of the run
+            LogManager.getLogger(EventJournal.class).warn("Event journal disabled, cannot open {} :- {}", directory, e.toString());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package utility;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static utility.Constant.NEW_LINE;
+
+/**
+ * The EventJournalReader class turns the segment files written by {@link EventJournal} back into events, and
+ * those events into a CSV file or a per-session text timeline. Journals of several runs or JVMs sharing one
+ * directory are read together and merged by wall-clock time.
+ *
+ * <p>It can also be run from the command line after a suite:
+ * {@code java utility.EventJournalReader <journal directory> <output.csv>}.
+ */
+public class EventJournalReader {
+    private static final Logger ltLogger = LogManager.getLogger(EventJournalReader.class);
+
+    private static final EventJournal.Source[] SOURCES = EventJournal.Source.values();
+
+    private EventJournalReader() {
+    }
+
+    /**
+     * Reads every journal in a directory.
+     *
+     * @param directory The journal directory.
+     * @return The events, ordered by start time.
+     * @throws IOException If a segment cannot be read.
+     */
+    public static List<Event> read(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(EventJournal.FILE_SUFFIX)).sorted().toList();
+        }
+
+        Map<Long, Map<Integer, String>> dictionaries = new HashMap<>();
+        List<RawEvent> rawEvents = new ArrayList<>();
+        for (Path file : files) {
+            readSegment(file, dictionaries, rawEvents);
+        }
+
+        List<Event> events = new ArrayList<>(rawEvents.size());
+        for (RawEvent raw : rawEvents) {
+            Map<Integer, String> strings = dictionaries.getOrDefault(raw.journalId, Map.of());
+            events.add(new Event(raw.source, strings.get(raw.commandId), strings.get(raw.targetId), strings.get(raw.sessionId),
+                    raw.threadId, raw.start, raw.duration, raw.success, raw.value));
+        }
+        events.sort(Comparator.comparing(Event::getStart));
+        ltLogger.info("Read {} events from {} journal segments in {}", events.size(), files.size(), directory);
+        return events;
+    }
+
+    /**
+     * Writes events as CSV with a header row.
+     *
+     * @param events The events to write.
+     * @param csv    The CSV file to create or replace.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeCsv(List<Event> events, Path csv) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("start,duration_ms,source,command,target,session,thread,outcome,value");
+            out.write(NEW_LINE);
+            for (Event event : events) {
+                out.write(event.getStart().toString());
+                out.write(',');
+                out.write(String.format("%.3f", event.getDuration().toNanos() / 1e6));
+                out.write(',');
+                out.write(event.getSource().name());
+                writeCsvField(out, event.getCommand());
+                writeCsvField(out, event.getTarget());
+                writeCsvField(out, event.getSession());
+                out.write(',');
+                out.write(Long.toString(event.getThreadId()));
+                out.write(',');
+                out.write(event.isSuccess() ? "OK" : "FAILED");
+                out.write(',');
+                out.write(Long.toString(event.getValue()));
+                out.write(NEW_LINE);
+            }
+        }
+    }
+
+    /**
+     * Builds a text timeline with one section per session, each event shown at its offset from the first event.
+     * Events without a session are grouped under "(none)".
+     *
+     * @param events The events, ordered by start time.
+     * @return The timeline.
+     */
+    public static String timeline(List<Event> events) {
+        if (events.isEmpty()) {
+            return "No events" + NEW_LINE;
+        }
+        Instant origin = events.get(0).getStart();
+        Map<String, List<Event>> bySession = new LinkedHashMap<>();
+        for (Event event : events) {
+            bySession.computeIfAbsent(event.getSession() == null ? "(none)" : event.getSession(), key -> new ArrayList<>()).add(event);
+        }
+        StringBuilder timeline = new StringBuilder();
+        bySession.forEach((session, sessionEvents) -> {
+            timeline.append("Session :- ").append(session).append(NEW_LINE);
+            for (Event event : sessionEvents) {
+                timeline.append(String.format("  +%9.1f ms %8.1f ms  %-9s %-6s %s%s%n",
+                        Duration.between(origin, event.getStart()).toNanos() / 1e6, event.getDuration().toNanos() / 1e6,
+                        event.getSource(), event.isSuccess() ? "OK" : "FAILED", event.getCommand(),
+                        event.getTarget() == null ? "" : " " + event.getTarget()));
+            }
+        });
+        return timeline.toString();
+    }
+
+    /**
+     * Converts a journal directory to CSV and prints the timeline.
+     *
+     * @param args The journal directory and the CSV file to write.
+     * @throws IOException If the journal cannot be read or the CSV cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java utility.EventJournalReader <journal directory> <output.csv>");
+            System.exit(2);
+        }
+        List<Event> events = read(Paths.get(args[0]));
+        writeCsv(events, Paths.get(args[1]));
+        System.out.print(timeline(events));
+    }
+
+    private static void readSegment(Path file, Map<Long, Map<Integer, String>> dictionaries, List<RawEvent> events) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (segment.limit() < EventJournal.HEADER_SIZE || segment.getInt(0) != EventJournal.MAGIC || segment.getInt(4) != EventJournal.VERSION) {
+                ltLogger.warn("Skipping file that is not an event journal segment :- {}", file);
+                return;
+            }
+            long journalId = segment.getLong(8);
+            long epochNanos = segment.getLong(16);
+            long nanoBase = segment.getLong(24);
+            Map<Integer, String> strings = dictionaries.computeIfAbsent(journalId, id -> new HashMap<>());
+
+            int offset = EventJournal.HEADER_SIZE;
+            while (offset + EventJournal.RECORD_SIZE <= segment.limit()) {
+                byte type = segment.get(offset);
+                if (type == EventJournal.TYPE_STRING) {
+                    int length = Short.toUnsignedInt(segment.getShort(offset + 2));
+                    byte[] bytes = new byte[length];
+                    segment.get(offset + 8, bytes);
+                    strings.put(segment.getInt(offset + 4), new String(bytes, StandardCharsets.UTF_8));
+                    offset += (8 + length + EventJournal.RECORD_SIZE - 1) / EventJournal.RECORD_SIZE * EventJournal.RECORD_SIZE;
+                    continue;
+                }
+                if (type == EventJournal.TYPE_EVENT) {
+                    int source = segment.get(offset + 1);
+                    long start = segment.getLong(offset + 8);
+                    long end = segment.getLong(offset + 16);
+                    events.add(new RawEvent(journalId,
+                            source >= 0 && source < SOURCES.length ? SOURCES[source] : EventJournal.Source.OTHER,
+                            segment.get(offset + 2) == 1,
+                            segment.getInt(offset + 4),
+                            segment.getInt(offset + 28),
+                            segment.getInt(offset + 24),
+                            segment.getLong(offset + 32),
+                            toInstant(epochNanos + (start - nanoBase)),
+                            Duration.ofNanos(end - start),
+                            segment.getLong(offset + 40)));
+                }
+                offset += EventJournal.RECORD_SIZE;
+            }
+        }
+    }
+
+    private static Instant toInstant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L), Math.floorMod(epochNanos, 1_000_000_000L));
+    }
+
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        out.write(',');
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private record RawEvent(long journalId, EventJournal.Source source, boolean success, int commandId, int targetId,
+                            int sessionId, long threadId, Instant start, Duration duration, long value) {
+    }
+
+    /**
+     * The Event class is one journal event with its strings resolved and its start converted to wall-clock time.
+     */
+    public static class Event {
+        private final EventJournal.Source source;
+        private final String command;
+        private final String target;
+        private final String session;
+        private final long threadId;
+        private final Instant start;
+        private final Duration duration;
+        private final boolean success;
+        private final long value;
+
+        private Event(EventJournal.Source source, String command, String target, String session, long threadId,
+                      Instant start, Duration duration, boolean success, long value) {
+            this.source = source;
+            this.command = command;
+            this.target = target;
+            this.session = session;
+            this.threadId = threadId;
+            this.start = start;
+            this.duration = duration;
+            this.success = success;
+            this.value = value;
+        }
+
+        /**
+         * @return The helper that produced the event.
+         */
+        public EventJournal.Source getSource() {
+            return source;
+        }
+
+        /**
+         * @return The operation, for example "GET" or "waitForElement".
+         */
+        public String getCommand() {
+            return command;
+        }
+
+        /**
+         * @return What the operation acted on, or null.
+         */
+        public String getTarget() {
+            return target;
+        }
+
+        /**
+         * @return The session or tunnel the operation belongs to, or null.
+         */
+        public String getSession() {
+            return session;
+        }
+
+        /**
+         * @return The id of the thread that recorded the event.
+         */
+        public long getThreadId() {
+            return threadId;
+        }
+
+        /**
+         * @return When the operation started.
+         */
+        public Instant getStart() {
+            return start;
+        }
+
+        /**
+         * @return How long the operation took.
+         */
+        public Duration getDuration() {
+            return duration;
+        }
+
+        /**
+         * @return Whether the operation succeeded.
+         */
+        public boolean isSuccess() {
+            return success;
+        }
+
+        /**
+         * @return The number describing the outcome, for example a status code or a byte count.
+         */
+        public long getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s %s %s%s %d ms", start, source, success ? "OK" : "FAILED", command,
+                    target == null ? "" : " " + target, duration.toMillis());
+        }
+    }
+}
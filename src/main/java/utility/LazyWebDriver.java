@@ -0,0 +1,160 @@
+package utility;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LazyWebDriver class backs the WebDriver proxies returned by {@link CapabilitiesHelper#lazyDriverCreate}.
+ * The proxy implements every interface of RemoteWebDriver (JavascriptExecutor, TakesScreenshot, HasCapabilities
+ * and so on) plus {@link WrapsDriver}, and starts the real grid session on the first command sent through it.
+ * A test that never touches the browser therefore never pays for a session; quitting such a proxy does nothing
+ * and is counted as a session avoided.
+ */
+public class LazyWebDriver implements InvocationHandler {
+    private final Logger ltLogger = LogManager.getLogger(LazyWebDriver.class);
+
+    private static final Class<?>[] PROXY_INTERFACES = proxyInterfaces();
+    private static final LongAdder sessionsStarted = new LongAdder();
+    private static final LongAdder sessionsAvoided = new LongAdder();
+
+    private final Callable<RemoteWebDriver> sessionFactory;
+    private volatile RemoteWebDriver driver;
+    private volatile boolean quit;
+
+    private LazyWebDriver(Callable<RemoteWebDriver> sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * Creates a WebDriver proxy that calls the given factory on its first command.
+     *
+     * @param sessionFactory Creates the real session, for example {@code () -> helper.driverCreate(caps)}.
+     * @return The lazy WebDriver proxy.
+     */
+    public static WebDriver create(Callable<RemoteWebDriver> sessionFactory) {
+        return (WebDriver) Proxy.newProxyInstance(LazyWebDriver.class.getClassLoader(), PROXY_INTERFACES,
+                new LazyWebDriver(sessionFactory));
+    }
+
+    /**
+     * Checks whether a driver is a lazy proxy whose session has not been started.
+     *
+     * @param driver The driver to check.
+     * @return True if the driver is a lazy proxy that never started a session, false otherwise.
+     */
+    public static boolean isUnstarted(WebDriver driver) {
+        return driver != null && Proxy.isProxyClass(driver.getClass())
+                && Proxy.getInvocationHandler(driver) instanceof LazyWebDriver lazy && lazy.driver == null;
+    }
+
+    /**
+     * @return The number of sessions lazy proxies have started in this JVM.
+     */
+    public static long getSessionsStarted() {
+        return sessionsStarted.sum();
+    }
+
+    /**
+     * @return The number of lazy proxies quit in this JVM without ever starting a session.
+     */
+    public static long getSessionsAvoided() {
+        return sessionsAvoided.sum();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                if (method.getParameterCount() == 1) {
+                    return proxy == args[0];
+                }
+                break;
+            case "hashCode":
+                if (method.getParameterCount() == 0) {
+                    return System.identityHashCode(proxy);
+                }
+                break;
+            case "toString":
+                if (method.getParameterCount() == 0) {
+                    RemoteWebDriver started = driver;
+                    return started == null ? "LazyWebDriver[session not started]" : started.toString();
+                }
+                break;
+            case "quit":
+                if (quitUnstarted()) {
+                    return null;
+                }
+                break;
+            case "close":
+                if (driver == null) {
+                    return null;
+                }
+                break;
+            case "getWrappedDriver":
+                return session();
+            default:
+                break;
+        }
+
+        try {
+            return method.invoke(session(), args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private synchronized boolean quitUnstarted() {
+        if (driver != null) {
+            return false;
+        }
+        if (!quit) {
+            quit = true;
+            sessionsAvoided.increment();
+            ltLogger.info("Lazy driver quit before its session was started, no session was created");
+        }
+        return true;
+    }
+
+    private RemoteWebDriver session() {
+        RemoteWebDriver started = driver;
+        if (started != null) {
+            return started;
+        }
+        synchronized (this) {
+            if (driver == null) {
+                if (quit) {
+                    throw new NoSuchSessionException("Lazy driver was quit before its session was started");
+                }
+                try {
+                    ltLogger.info("Starting session for lazy driver on first use");
+                    driver = sessionFactory.call();
+                } catch (Exception e) {
+                    throw new SessionNotCreatedException("Lazy driver failed to start its session :- " + e.getMessage(), e);
+                }
+                sessionsStarted.increment();
+            }
+            return driver;
+        }
+    }
+
+    private static Class<?>[] proxyInterfaces() {
+        Set<Class<?>> interfaces = new LinkedHashSet<>(ClassUtils.getAllInterfaces(RemoteWebDriver.class));
+        interfaces.add(WrapsDriver.class);
+        return interfaces.toArray(new Class<?>[0]);
+    }
+}
@@ -0,0 +1,322 @@
+package utility;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The SessionScheduler class keeps the number of live grid sessions within the account's concurrency limit by
+ * queueing session requests locally instead of letting them queue invisibly on the grid or fail.
+ *
+ * <p>Waiting requests are served in priority order, lower values first, so smoke tests can overtake a full
+ * regression. Among requests of equal priority the suite with the fewest live sessions goes first, which shares
+ * capacity fairly between suites running side by side; ties are served in arrival order. A released slot is
+ * handed directly to the chosen waiter, so no other thread can take it in between. The time each request spent
+ * queued is recorded per suite.
+ *
+ * <p>{@link CapabilitiesHelper} uses a scheduler set with {@link CapabilitiesHelper#setSessionScheduler}: its
+ * {@code driverCreate} acquires a slot before creating the session and its {@code quitDriver} releases it.
+ */
+public class SessionScheduler {
+    private final Logger ltLogger = LogManager.getLogger(SessionScheduler.class);
+
+    /** Priority for smoke and sanity tests, served before everything else. */
+    public static final int PRIORITY_SMOKE = 0;
+    /** Priority for ordinary tests. */
+    public static final int PRIORITY_DEFAULT = 5;
+    /** Priority for long regression runs, served last. */
+    public static final int PRIORITY_REGRESSION = 10;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Waiter> waiters = new ArrayList<>();
+    private final Map<String, Integer> liveBySuite = new HashMap<>();
+    private final Map<String, WaitStats> waitBySuite = new TreeMap<>();
+    private final Map<WebDriver, Lease> leases = Collections.synchronizedMap(new IdentityHashMap<>());
+    private int capacity;
+    private int live;
+    private int peakQueued;
+    private long arrivals;
+
+    /**
+     * Constructs a SessionScheduler.
+     *
+     * @param capacity The maximum number of concurrent sessions, usually the account's parallel session limit.
+     */
+    public SessionScheduler(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Session capacity must be at least 1");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Waits for a free session slot.
+     *
+     * @param suite    The suite the session is for, used for fair sharing and reporting; must not be null.
+     * @param priority The request priority; lower values are served first.
+     * @return The lease on the slot, to be released when the session ends.
+     * @throws InterruptedException If the thread is interrupted while queued.
+     */
+    public Lease acquire(String suite, int priority) throws InterruptedException {
+        // Checked before a slot can be taken, as a null suite cannot be keyed in the wait statistics
+        if (suite == null) {
+            throw new IllegalArgumentException("Session suite must not be null");
+        }
+        long requested = System.nanoTime();
+        lock.lock();
+        try {
+            Waiter waiter = new Waiter(suite, priority, arrivals++, lock.newCondition());
+            if (waiters.isEmpty() && live < capacity) {
+                grant(waiter);
+            } else {
+                waiters.add(waiter);
+                peakQueued = Math.max(peakQueued, waiters.size());
+                ltLogger.info("Queued session request for suite {} with priority {} :- {} live of {}, {} waiting",
+                        suite, priority, live, capacity, waiters.size());
+                try {
+                    while (!waiter.granted) {
+                        waiter.condition.await();
+                    }
+                } catch (InterruptedException e) {
+                    if (waiter.granted) {
+                        // The slot was handed over just as we gave up; pass it on rather than lose it
+                        releaseSlot(suite);
+                    } else {
+                        waiters.remove(waiter);
+                    }
+                    throw e;
+                }
+            }
+            Duration waited = Duration.ofNanos(System.nanoTime() - requested);
+            waitBySuite.computeIfAbsent(suite, key -> new WaitStats()).record(waited);
+            return new Lease(suite, waited);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ties a lease to the session created with it, so that {@link #release(WebDriver)} can find it later.
+     *
+     * @param driver The session's driver.
+     * @param lease  The lease the session was created under.
+     */
+    public void attach(WebDriver driver, Lease lease) {
+        leases.put(driver, lease);
+    }
+
+    /**
+     * Releases the slot held by a session.
+     *
+     * @param driver The session's driver, as passed to {@link #attach}.
+     * @return true if the driver held a slot, false if it was not scheduled here or was already released.
+     */
+    public boolean release(WebDriver driver) {
+        Lease lease = leases.remove(driver);
+        return lease != null && lease.release();
+    }
+
+    /**
+     * Changes the capacity, for example after the account's concurrency limit changed.
+     * Raising it starts queued requests at once; lowering it takes effect as sessions end.
+     *
+     * @param capacity The new maximum number of concurrent sessions.
+     */
+    public void setCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Session capacity must be at least 1");
+        }
+        lock.lock();
+        try {
+            this.capacity = capacity;
+            while (live < capacity && !waiters.isEmpty()) {
+                grant(next());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of sessions holding a slot.
+     */
+    public int getLiveSessions() {
+        lock.lock();
+        try {
+            return live;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of requests waiting for a slot.
+     */
+    public int getQueuedRequests() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Builds a report of the queue wait per suite.
+     *
+     * @return The report, one line per suite.
+     */
+    public String report() {
+        lock.lock();
+        try {
+            StringBuilder report = new StringBuilder(String.format("Session capacity :- %d, Live :- %d, Queued :- %d, Peak queued :- %d%n",
+                    capacity, live, waiters.size(), peakQueued));
+            waitBySuite.forEach((suite, stats) -> report.append(String.format("  %-24s %s%n", suite, stats)));
+            return report.toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+
+    private void grant(Waiter waiter) {
+        live++;
+        liveBySuite.merge(waiter.suite, 1, Integer::sum);
+        waiter.granted = true;
+        waiter.condition.signal();
+    }
+
+    private void releaseSlot(String suite) {
+        lock.lock();
+        try {
+            live--;
+            liveBySuite.merge(suite, -1, Integer::sum);
+            // Hand the slot straight to the next waiter instead of letting threads race for it
+            if (live < capacity && !waiters.isEmpty()) {
+                grant(next());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Waiter next() {
+        Waiter best = null;
+        for (Waiter waiter : waiters) {
+            if (best == null || waiter.before(best, liveBySuite)) {
+                best = waiter;
+            }
+        }
+        waiters.remove(best);
+        return best;
+    }
+
+    /**
+     * The Lease class is a claim on one session slot. Releasing it more than once has no further effect.
+     */
+    public class Lease {
+        private final String suite;
+        private final Duration queueWait;
+        private boolean released;
+
+        private Lease(String suite, Duration queueWait) {
+            this.suite = suite;
+            this.queueWait = queueWait;
+        }
+
+        /**
+         * @return The suite the slot was acquired for.
+         */
+        public String getSuite() {
+            return suite;
+        }
+
+        /**
+         * @return How long the request waited for the slot.
+         */
+        public Duration getQueueWait() {
+            return queueWait;
+        }
+
+        /**
+         * Returns the slot to the scheduler, which hands it to the next waiter if there is one.
+         *
+         * @return true if this call released the slot, false if it was already released.
+         */
+        public boolean release() {
+            synchronized (this) {
+                if (released) {
+                    return false;
+                }
+                released = true;
+            }
+            releaseSlot(suite);
+            return true;
+        }
+    }
+
+    private static final class Waiter {
+        private final String suite;
+        private final int priority;
+        private final long arrival;
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(String suite, int priority, long arrival, Condition condition) {
+            this.suite = suite;
+            this.priority = priority;
+            this.arrival = arrival;
+            this.condition = condition;
+        }
+
+        private boolean before(Waiter other, Map<String, Integer> liveBySuite) {
+            if (priority != other.priority) {
+                return priority < other.priority;
+            }
+            int live = liveBySuite.getOrDefault(suite, 0);
+            int otherLive = liveBySuite.getOrDefault(other.suite, 0);
+            if (live != otherLive) {
+                return live < otherLive;
+            }
+            return arrival < other.arrival;
+        }
+    }
+
+    private static final class WaitStats {
+        private long requests;
+        private long queued;
+        private long totalNanos;
+        private long maxNanos;
+
+        private void record(Duration waited) {
+            long nanos = waited.toNanos();
+            requests++;
+            if (nanos >= 1_000_000) {
+                queued++;
+            }
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests :- %d, queued :- %d, avg wait :- %d ms, max wait :- %d ms",
+                    requests, queued, requests == 0 ? 0 : totalNanos / requests / 1_000_000, maxNanos / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package utility;
+
+import java.util.ArrayDeque;
+
+/**
+ * The TestTimings class accumulates where the time of one test goes: creating the driver, WebDriver commands,
+ * API calls and waits. {@link TimingReportListener} begins an accumulator on the test's thread before the test
+ * and its {@code @BeforeMethod} run, and the helpers add to it through {@link #record}; while no accumulator is
+ * active on the thread, recording costs one thread-local read.
+ *
+ * <p>WebDriver commands are recorded one by one as the session's command executor sends them, so a command counts
+ * the same whether it came through a helper, the driver or a WebElement. Commands sent during a wait, between
+ * {@link #beginWait} and {@link #endWait}, are part of the wait and counted under {@link Category#WAIT} with it.
+ *
+ * <p>Timings are exclusive: when a timed call runs inside another, for example a lazily created session started
+ * by the first WebDriver command, its time is counted once, under the inner call's category.
+ */
+public class TestTimings {
+
+    /**
+     * The categories test time is split into.
+     */
+    public enum Category {
+        DRIVER_CREATE, WEBDRIVER, API, WAIT
+    }
+
+    // Completed calls kept to find the ones nested in a call still running; nesting is never deeper than this
+    private static final int MAX_COMPLETED = 32;
+    private static final ThreadLocal<TestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long[] nanos = new long[Category.values().length];
+    private final int[] counts = new int[Category.values().length];
+    // {start, inclusive nanos} of completed calls, most recent last
+    private final ArrayDeque<long[]> completed = new ArrayDeque<>();
+    private int waitsInProgress;
+
+    /**
+     * Default constructor for the TestTimings class.
+     * Initializes an empty accumulator.
+     */
+    public TestTimings() {
+        super();
+    }
+
+    /**
+     * Begins a new accumulator on the calling thread unless one is already active.
+     *
+     * @return The active accumulator.
+     */
+    public static TestTimings begin() {
+        TestTimings timings = CURRENT.get();
+        if (timings == null) {
+            timings = new TestTimings();
+            CURRENT.set(timings);
+        }
+        return timings;
+    }
+
+    /**
+     * Ends the calling thread's accumulator.
+     *
+     * @return The accumulator that was active, or null if none was.
+     */
+    public static TestTimings end() {
+        TestTimings timings = CURRENT.get();
+        CURRENT.remove();
+        return timings;
+    }
+
+    /**
+     * @return The calling thread's active accumulator, or null if none is active.
+     */
+    public static TestTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Adds a call that ends now to the calling thread's accumulator, if one is active.
+     *
+     * @param category   The category of the call.
+     * @param startNanos The {@link System#nanoTime()} at which the call started.
+     */
+    public static void record(Category category, long startNanos) {
+        TestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.add(category, startNanos, System.nanoTime());
+        }
+    }
+
+    /**
+     * Adds a WebDriver command that ends now to the calling thread's accumulator, unless it was sent during a wait.
+     *
+     * @param startNanos The {@link System#nanoTime()} at which the command started.
+     */
+    public static void recordCommand(long startNanos) {
+        TestTimings timings = CURRENT.get();
+        if (timings != null && timings.waitsInProgress == 0) {
+            timings.add(Category.WEBDRIVER, startNanos, System.nanoTime());
+        }
+    }
+
+    /**
+     * Starts a wait on the calling thread. WebDriver commands sent until the matching {@link #endWait} are polls of
+     * the wait and are not counted on their own.
+     *
+     * @return The start time to pass to {@link #endWait}.
+     */
+    public static long beginWait() {
+        TestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.waitsInProgress++;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Ends a wait started with {@link #beginWait} and adds it to the calling thread's accumulator.
+     *
+     * @param startNanos The start time returned by {@link #beginWait}.
+     */
+    public static void endWait(long startNanos) {
+        TestTimings timings = CURRENT.get();
+        if (timings != null) {
+            // Never below zero, in case the accumulator was replaced while the wait ran
+            timings.waitsInProgress = Math.max(0, timings.waitsInProgress - 1);
+            timings.add(Category.WAIT, startNanos, System.nanoTime());
+        }
+    }
+
+    private void add(Category category, long startNanos, long endNanos) {
+        long inclusive = endNanos - startNanos;
+        long nested = 0;
+        // Calls that completed after this one started ran inside it and are already counted
+        while (!completed.isEmpty() && completed.peekLast()[0] >= startNanos) {
+            nested += completed.pollLast()[1];
+        }
+        completed.addLast(new long[]{startNanos, inclusive});
+        if (completed.size() > MAX_COMPLETED) {
+            completed.pollFirst();
+        }
+        nanos[category.ordinal()] += Math.max(0, inclusive - nested);
+        counts[category.ordinal()]++;
+    }
+
+    /**
+     * @param category The category.
+     * @return The time spent in the category, in nanoseconds.
+     */
+    public long getNanos(Category category) {
+        return nanos[category.ordinal()];
+    }
+
+    /**
+     * @param category The category.
+     * @return The time spent in the category, in milliseconds.
+     */
+    public long getMillis(Category category) {
+        return nanos[category.ordinal()] / 1_000_000;
+    }
+
+    /**
+     * @param category The category.
+     * @return The number of calls recorded in the category.
+     */
+    public int getCount(Category category) {
+        return counts[category.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Category category : Category.values()) {
+            if (!builder.isEmpty()) {
+                builder.append(", ");
+            }
+            builder.append(category).append(" :- ").append(getMillis(category)).append(" ms / ").append(getCount(category));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,272 @@
+package utility;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IExecutionListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+import static utility.Constant.NEW_LINE;
+
+/**
+ * The TimingReportListener class is a TestNG listener that writes each test's timings to a report as the test
+ * finishes: how long the test took and how much of that went into creating the driver, WebDriver commands, API
+ * calls and waits, as measured through {@link TestTimings}. Two files are written side by side, a JSON-lines file
+ * with one object per test for tooling and an HTML table for people.
+ *
+ * <p>Every row is flushed when it is written and nothing is kept once it is, so memory stays the same however large
+ * the suite, and the reports can be opened while the run is still going; the HTML page reloads itself until the run
+ * finishes. Register the listener in {@code testng.xml} or with {@code @Listeners(TimingReportListener.class)}.
+ * Reports go to {@code reports/timings} under the working directory unless the {@code TIMING_REPORT} system
+ * property names another directory.
+ *
+ * <p>Timings are collected on the test's thread from its {@code @BeforeMethod} on, so a driver created there is
+ * charged to the test; driver creation includes any wait for a free session slot. WebDriver commands are timed one
+ * by one for sessions created through {@link CapabilitiesHelper#driverCreate}, whether a helper, the driver or a
+ * WebElement sent them; commands sent while a helper waits for an element or page count as part of the wait. API
+ * calls are timed in {@code APIHelper}. Each call is counted once, in its own category, even when it runs inside
+ * another timed call.
+ */
+public class TimingReportListener implements ITestListener, IInvokedMethodListener, IExecutionListener {
+    private final Logger ltLogger = LogManager.getLogger(TimingReportListener.class);
+
+    private static final String HTML_HEADER = """
+            <!DOCTYPE html>
+            <html>
+            <head>
+            <meta charset="utf-8">
+            <title>Test timings</title>
+            <style>
+            body { font-family: sans-serif; font-size: 13px; }
+            table { border-collapse: collapse; }
+            th, td { border: 1px solid #ccc; padding: 3px 6px; }
+            td.number { text-align: right; }
+            tr.FAILURE td { background: #fde2e2; }
+            tr.SKIP td { background: #fff4d6; }
+            </style>
+            <script>
+            window.addEventListener('load', function () {
+              if (!document.getElementById('finished')) {
+                setTimeout(function () { location.reload(); }, 10000);
+              }
+            });
+            </script>
+            </head>
+            <body>
+            <h2>Test timings</h2>
+            <p>Rows are added as tests finish; this page reloads every 10 seconds until the run is over.</p>
+            <table>
+            <tr><th>Finished</th><th>Test</th><th>Status</th><th>Thread</th><th>Test ms</th><th>Driver create ms</th>\
+            <th>WebDriver ms</th><th>Commands</th><th>API ms</th><th>API calls</th><th>Wait ms</th><th>Waits</th><th>Error</th></tr>
+            """;
+    private static final int MAX_ERROR_LENGTH = 300;
+
+    private BufferedWriter jsonLines;
+    private BufferedWriter html;
+    private boolean closed;
+    private int passed;
+    private int failed;
+    private int skipped;
+
+    /**
+     * Default constructor for the TimingReportListener class.
+     * Initializes a listener that opens its report files when the first test finishes.
+     */
+    public TimingReportListener() {
+        super();
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod() || method.getTestMethod().isBeforeMethodConfiguration()) {
+            TestTimings.begin();
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        write(result, "SUCCESS");
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        write(result, "FAILURE");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        write(result, "SKIP");
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        write(result, "SUCCESS_PERCENTAGE_FAILURE");
+    }
+
+    /**
+     * Writes the closing summary to the HTML report and closes both files. Tests finishing afterwards are not reported.
+     */
+    @Override
+    public synchronized void onExecutionFinish() {
+        if (html == null || closed) {
+            return;
+        }
+        closed = true;
+        try {
+            html.write(String.format("</table>%n<p id=\"finished\">Finished at %s :- %d passed, %d failed, %d skipped</p>%n</body>%n</html>%n",
+                    LocalDateTime.now().withNano(0), passed, failed, skipped));
+            html.close();
+            jsonLines.close();
+        } catch (IOException e) {
+            ltLogger.error("Failed to close the timing report :- {}", e.getMessage());
+        }
+    }
+
+    private void write(ITestResult result, String status) {
+        TestTimings timings = TestTimings.end();
+        if (timings == null) {
+            timings = new TestTimings();
+        }
+        String test = result.getTestClass().getName() + "." + result.getMethod().getMethodName();
+        if (result.getParameters() != null && result.getParameters().length > 0) {
+            test += Arrays.toString(result.getParameters());
+        }
+        String thread = Thread.currentThread().getName();
+        long duration = Math.max(0, result.getEndMillis() - result.getStartMillis());
+        String error = result.getThrowable() == null ? null : truncate(result.getThrowable().toString());
+
+        ZonedDateTime finished = Instant.ofEpochMilli(result.getEndMillis()).atZone(ZoneId.systemDefault());
+
+        String json = "{\"finished\":\"" + finished.toOffsetDateTime() + "\""
+                + ",\"test\":" + jsonString(test)
+                + ",\"status\":\"" + status + "\""
+                + ",\"thread\":" + jsonString(thread)
+                + ",\"testMs\":" + duration
+                + ",\"driverCreateMs\":" + timings.getMillis(TestTimings.Category.DRIVER_CREATE)
+                + ",\"webDriverMs\":" + timings.getMillis(TestTimings.Category.WEBDRIVER)
+                + ",\"webDriverCommands\":" + timings.getCount(TestTimings.Category.WEBDRIVER)
+                + ",\"apiMs\":" + timings.getMillis(TestTimings.Category.API)
+                + ",\"apiCalls\":" + timings.getCount(TestTimings.Category.API)
+                + ",\"waitMs\":" + timings.getMillis(TestTimings.Category.WAIT)
+                + ",\"waits\":" + timings.getCount(TestTimings.Category.WAIT)
+                + ",\"error\":" + (error == null ? "null" : jsonString(error))
+                + "}" + NEW_LINE;
+        String row = "<tr class=\"" + status + "\"><td>" + finished.toLocalDateTime().withNano(0) + "</td>"
+                + "<td>" + htmlText(test) + "</td><td>" + status + "</td><td>" + htmlText(thread) + "</td>"
+                + numberCell(duration)
+                + numberCell(timings.getMillis(TestTimings.Category.DRIVER_CREATE))
+                + numberCell(timings.getMillis(TestTimings.Category.WEBDRIVER))
+                + numberCell(timings.getCount(TestTimings.Category.WEBDRIVER))
+                + numberCell(timings.getMillis(TestTimings.Category.API))
+                + numberCell(timings.getCount(TestTimings.Category.API))
+                + numberCell(timings.getMillis(TestTimings.Category.WAIT))
+                + numberCell(timings.getCount(TestTimings.Category.WAIT))
+                + "<td>" + (error == null ? "" : htmlText(error)) + "</td></tr>" + NEW_LINE;
+        append(status, json, row);
+    }
+
+    private synchronized void append(String status, String json, String row) {
+        if (closed) {
+            ltLogger.warn("Timing report already closed, dropping row :- {}", json.trim());
+            return;
+        }
+        switch (status) {
+            case "SUCCESS" -> passed++;
+            case "SKIP" -> skipped++;
+            default -> failed++;
+        }
+        try {
+            if (html == null) {
+                open();
+            }
+            jsonLines.write(json);
+            jsonLines.flush();
+            html.write(row);
+            html.flush();
+        } catch (IOException e) {
+            ltLogger.error("Failed to write the timing report :- {}", e.getMessage());
+        }
+    }
+
+    private void open() throws IOException {
+        String directory = System.getProperty(Constant.TIMING_REPORT_PROPERTY, "");
+        Path reportDirectory = directory.isEmpty()
+                ? Paths.get(System.getProperty(Constant.USER_DIR) + Constant.TIMING_REPORT_DIRECTORY)
+                : Paths.get(directory);
+        Files.createDirectories(reportDirectory);
+        String name = "timings-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path jsonFile = reportDirectory.resolve(name + ".jsonl");
+        Path htmlFile = reportDirectory.resolve(name + ".html");
+        jsonLines = Files.newBufferedWriter(jsonFile, StandardCharsets.UTF_8);
+        try {
+            html = Files.newBufferedWriter(htmlFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            jsonLines.close();
+            throw e;
+        }
+        html.write(HTML_HEADER);
+        // Closes the report if the run ends without TestNG calling onExecutionFinish
+        Runtime.getRuntime().addShutdownHook(new Thread(this::onExecutionFinish, "timing-report-close"));
+        ltLogger.info("Streaming test timings to {} and {}", jsonFile, htmlFile);
+    }
+
+    private static String truncate(String text) {
+        return text.length() <= MAX_ERROR_LENGTH ? text : text.substring(0, MAX_ERROR_LENGTH) + "...";
+    }
+
+    private static String numberCell(long value) {
+        return "<td class=\"number\">" + value + "</td>";
+    }
+
+    private static String jsonString(String text) {
+        StringBuilder builder = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static String htmlText(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> builder.append("&lt;");
+                case '>' -> builder.append("&gt;");
+                case '&' -> builder.append("&amp;");
+                case '"' -> builder.append("&quot;");
+                default -> builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static utility.Constant.*;
 
@@ -25,6 +26,9 @@ public class Tunnel extends Utilities {
     String userName;
     String accessKey;
     String tunnelName;
+    private volatile Process tunnelProcess;
+    private volatile BufferedReader tunnelOutput;
+    private volatile ProcessBuilder tunnelCommand;
 
     /**
      * Default constructor for the Tunnel class.
@@ -131,6 +135,10 @@ public class Tunnel extends Utilities {
                 breakAfterNextLine = true;
             }
             if (line.contains("Tunnel ID:") && breakAfterNextLine) {
+                // Keep the handle and the rest of the output stream so the tunnel can be monitored and restarted
+                tunnelProcess = process;
+                tunnelOutput = reader;
+                tunnelCommand = startTunnelCLICommand;
                 return true;
             }
             if (currentLineNumber >= 50) {
@@ -155,26 +163,118 @@ public class Tunnel extends Utilities {
      * @param maxTunnelRetries the maximum number of retry attempts.
      */
     public void startTunnel(String tunnelMode, int maxTunnelRetries) {
-        for (int retries = 0; retries <= maxTunnelRetries; retries++) {
-            ProcessBuilder startTunnelCLICommand = startTunnelCLI(tunnelMode);
-            if (isTunnelStatusSuccess(startTunnelCLICommand)) {
-                return;
-            }
-            if (retries < maxTunnelRetries) {
-                ltLogger.warn("Tunnel Server is not initiated. Retrying Tunnel Command Again With Different Port (Attempt {}/{})", retries + 1, maxTunnelRetries);
-                String availableOpenPort = getOpenPort();
-                List<String> command = startTunnelCLICommand.command();
-                for (int i = 0; i < command.size(); i++) {
-                    if (command.get(i).equals("--port")) {
-                        command.set(i + 1, availableOpenPort);
-                        break;
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            for (int retries = 0; retries <= maxTunnelRetries; retries++) {
+                ProcessBuilder startTunnelCLICommand = startTunnelCLI(tunnelMode);
+                if (isTunnelStatusSuccess(startTunnelCLICommand)) {
+                    success = true;
+                    return;
+                }
+                if (retries < maxTunnelRetries) {
+                    ltLogger.warn("Tunnel Server is not initiated. Retrying Tunnel Command Again With Different Port (Attempt {}/{})", retries + 1, maxTunnelRetries);
+                    String availableOpenPort = getOpenPort();
+                    List<String> command = startTunnelCLICommand.command();
+                    for (int i = 0; i < command.size(); i++) {
+                        if (command.get(i).equals("--port")) {
+                            command.set(i + 1, availableOpenPort);
+                            break;
+                        }
                     }
+                    startTunnelCLICommand.command(command);
                 }
-                startTunnelCLICommand.command(command);
             }
+            ltLogger.error("Tunnel Server is not initiated after {} attempts", maxTunnelRetries);
+            throw new RuntimeException("Tunnel Server is not initiated after " + maxTunnelRetries + " attempts");
+        } finally {
+            EventJournal.log(EventJournal.Source.TUNNEL, "startTunnel", tunnelMode, tunnelName, start, success, getTunnelPort());
+        }
+    }
+
+
+    /**
+     * Restarts a tunnel started by this instance: the running process is stopped and the same command is
+     * started again on a fresh port, retrying up to the given number of times.
+     * @param maxTunnelRetries the maximum number of retry attempts, so at most {@code maxTunnelRetries + 1} starts.
+     */
+    public void restartTunnel(int maxTunnelRetries) {
+        ProcessBuilder command = tunnelCommand;
+        if (command == null) {
+            throw new IllegalStateException("Tunnel was not started by this instance, nothing to restart");
+        }
+        ltLogger.warn("Restarting tunnel :- {}", tunnelName);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            destroyTunnelProcess();
+            for (int retries = 0; retries <= maxTunnelRetries; retries++) {
+                List<String> arguments = command.command();
+                int portIndex = arguments.indexOf("--port");
+                if (portIndex >= 0 && portIndex + 1 < arguments.size()) {
+                    arguments.set(portIndex + 1, getOpenPort());
+                }
+                if (isTunnelStatusSuccess(command)) {
+                    ltLogger.info("Tunnel restarted :- {}", tunnelName);
+                    success = true;
+                    return;
+                }
+                ltLogger.warn("Tunnel did not come back up (Attempt {}/{})", retries + 1, maxTunnelRetries + 1);
+            }
+            throw new RuntimeException("Tunnel Server is not restarted after " + (maxTunnelRetries + 1) + " attempts");
+        } finally {
+            EventJournal.log(EventJournal.Source.TUNNEL, "restartTunnel", null, tunnelName, start, success, getTunnelPort());
+        }
+    }
+
+
+    private void destroyTunnelProcess() {
+        Process process = tunnelProcess;
+        if (process == null || !process.isAlive()) {
+            return;
+        }
+        process.destroy();
+        try {
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+        }
+    }
+
+
+    /**
+     * Returns the tunnel process started by this instance.
+     * @return the process handle, or null if the tunnel has not been started.
+     */
+    public Process getTunnelProcess() {
+        return tunnelProcess;
+    }
+
+
+    /**
+     * Returns the local port the tunnel serves its info API on.
+     * @return the port, or -1 if the tunnel has not been started or was started without a port.
+     */
+    public int getTunnelPort() {
+        ProcessBuilder command = tunnelCommand;
+        if (command == null) {
+            return -1;
         }
-        ltLogger.error("Tunnel Server is not initiated after {} attempts", maxTunnelRetries);
-        throw new RuntimeException("Tunnel Server is not initiated after " + maxTunnelRetries + " attempts");
+        List<String> arguments = command.command();
+        int portIndex = arguments.indexOf("--port");
+        return portIndex >= 0 && portIndex + 1 < arguments.size() ? Integer.parseInt(arguments.get(portIndex + 1)) : -1;
+    }
+
+
+    /**
+     * Returns the rest of the tunnel's standard output after the start-up lines, for monitoring.
+     * @return the output reader, or null if the tunnel has not been started.
+     */
+    BufferedReader getTunnelOutput() {
+        return tunnelOutput;
     }
 
 
@@ -210,17 +310,24 @@ public class Tunnel extends Utilities {
      * @throws InterruptedException if the process is interrupted while waiting.
      */
     public void stopTunnel () throws IOException, InterruptedException {
-        ProcessBuilder stopTunnelCLICommand = stopTunnelCLI();
-        Process process = stopTunnelCLICommand.start();
-        stopTunnelCLICommand.start();
+        long start = System.nanoTime();
+        int exitCode = -1;
+        try {
+            ProcessBuilder stopTunnelCLICommand = stopTunnelCLI();
+            Process process = stopTunnelCLICommand.start();
+            stopTunnelCLICommand.start();
+
+            String line;
+            BufferedReader errorReader = new BufferedReader(new InputStreamReader(process.getErrorStream()));
+            ltLogger.info("Reading process error output (if any) ...");
+            while ((line = errorReader.readLine()) != null) {
+                ltLogger.error(line);
+            }
 
-        String line;
-        BufferedReader errorReader = new BufferedReader(new InputStreamReader(process.getErrorStream()));
-        ltLogger.info("Reading process error output (if any) ...");
-        while ((line = errorReader.readLine()) != null) {
-            ltLogger.error(line);
+            exitCode = process.waitFor();
+            ltLogger.info("Process exited with code :- {}", exitCode);
+        } finally {
+            EventJournal.log(EventJournal.Source.TUNNEL, "stopTunnel", null, tunnelName, start, exitCode == 0, exitCode);
         }
-
-        ltLogger.info("Process exited with code :- {}", process.waitFor());
     }
 }
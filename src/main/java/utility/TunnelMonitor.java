@@ -0,0 +1,354 @@
+package utility;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * The TunnelMonitor class watches a started {@link Tunnel} in the background and restarts it when it degrades,
+ * so tests routed through it fail fast or wait briefly instead of each timing out slowly.
+ *
+ * <p>Three signals are checked: whether the tunnel process is still alive, how many lines of its output match
+ * an error pattern within a sliding window, and the latency of a periodic request to the tunnel's local info
+ * port. A dead process, too many errors, or several slow or failed probes in a row trigger a restart. While the
+ * tunnel is restarting, {@link #awaitHealthy(Duration)} blocks dependent tests until it is back or the pause
+ * they allow runs out.
+ */
+public class TunnelMonitor implements AutoCloseable {
+    private final Logger ltLogger = LogManager.getLogger(TunnelMonitor.class);
+
+    /**
+     * The health of the monitored tunnel.
+     */
+    public enum State {
+        /** The tunnel is up and within thresholds. */
+        HEALTHY,
+        /** A threshold was breached and the tunnel is being restarted. */
+        RESTARTING,
+        /** The tunnel could not be restarted within the allowed number of restarts. */
+        FAILED
+    }
+
+    private static final String PROBE_PATH = "/api/v1.0/info";
+
+    private final Tunnel tunnel;
+    private final List<Pattern> errorPatterns = new CopyOnWriteArrayList<>(List.of(
+            Pattern.compile("(?i)\\b(error|fatal|panic)\\b"),
+            Pattern.compile("(?i)connection (lost|refused|reset|closed)")));
+    private final Deque<Long> recentErrors = new ArrayDeque<>();
+    private final AtomicInteger restarts = new AtomicInteger();
+    private final HttpClient probeClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private Duration checkInterval = Duration.ofSeconds(5);
+    private Duration latencyThreshold = Duration.ofSeconds(2);
+    private int slowProbeLimit = 3;
+    private int errorLimit = 5;
+    private Duration errorWindow = Duration.ofMinutes(1);
+    private int maxRestarts = 3;
+    private int maxTunnelRetries = 2;
+
+    private volatile ScheduledExecutorService scheduler;
+    private volatile State state = State.HEALTHY;
+    private volatile CompletableFuture<Void> healthy = CompletableFuture.completedFuture(null);
+    private volatile Duration lastProbeLatency;
+    private int slowProbes;
+
+    /**
+     * Constructs a TunnelMonitor for a tunnel that has already been started.
+     * Checks run every 5 seconds; a restart follows a dead process, 5 error lines within a minute,
+     * or 3 consecutive probes slower than 2 seconds. Call {@link #start()} to begin monitoring.
+     *
+     * @param tunnel The started tunnel.
+     */
+    public TunnelMonitor(Tunnel tunnel) {
+        if (tunnel.getTunnelProcess() == null) {
+            throw new IllegalStateException("Tunnel must be started before it can be monitored");
+        }
+        this.tunnel = tunnel;
+    }
+
+    /**
+     * Sets how often the process and the local probe are checked.
+     *
+     * @param checkInterval The check interval.
+     */
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * Sets the probe latency above which a probe counts as slow, and how many slow or failed probes in a row
+     * trigger a restart.
+     *
+     * @param latencyThreshold The slowest acceptable probe latency.
+     * @param slowProbeLimit   The number of consecutive slow or failed probes that triggers a restart.
+     */
+    public void setLatencyThreshold(Duration latencyThreshold, int slowProbeLimit) {
+        this.latencyThreshold = latencyThreshold;
+        this.slowProbeLimit = slowProbeLimit;
+    }
+
+    /**
+     * Sets how many error lines within a window of time trigger a restart.
+     *
+     * @param errorLimit  The number of matching lines that triggers a restart.
+     * @param errorWindow The sliding window the lines are counted in.
+     */
+    public void setErrorThreshold(int errorLimit, Duration errorWindow) {
+        this.errorLimit = errorLimit;
+        this.errorWindow = errorWindow;
+    }
+
+    /**
+     * Adds a pattern that marks a line of tunnel output as an error, in addition to the defaults.
+     *
+     * @param regex The regular expression, searched for anywhere in the line.
+     */
+    public void addErrorPattern(String regex) {
+        errorPatterns.add(Pattern.compile(regex));
+    }
+
+    /**
+     * Sets how many times the monitor may restart the tunnel, and how many start attempts each restart makes.
+     *
+     * @param maxRestarts      The number of restarts after which the tunnel is reported as failed.
+     * @param maxTunnelRetries The retries passed to {@link Tunnel#restartTunnel(int)}.
+     */
+    public void setMaxRestarts(int maxRestarts, int maxTunnelRetries) {
+        this.maxRestarts = maxRestarts;
+        this.maxTunnelRetries = maxTunnelRetries;
+    }
+
+    /**
+     * Starts draining the tunnel's output and checking its health in the background.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tunnel-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watch();
+        scheduler.scheduleWithFixedDelay(this::check, checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        ltLogger.info("Monitoring tunnel on port {} every {} ms", tunnel.getTunnelPort(), checkInterval.toMillis());
+    }
+
+    /**
+     * Waits until the tunnel is healthy. Returns at once if it already is; while it is restarting, waits at
+     * most the given pause so a test can hold off briefly instead of spending its own timeouts on a broken tunnel.
+     *
+     * @param maxPause The longest time to wait.
+     * @return true if the tunnel is healthy, false if it is still restarting or has failed.
+     */
+    public boolean awaitHealthy(Duration maxPause) {
+        CompletableFuture<Void> current = healthy;
+        if (current.isDone()) {
+            return state == State.HEALTHY;
+        }
+        ltLogger.info("Tunnel is restarting, pausing for up to {} ms", maxPause.toMillis());
+        try {
+            current.get(maxPause.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        }
+        return state == State.HEALTHY;
+    }
+
+    /**
+     * @return The current health of the tunnel.
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return The number of times the monitor restarted the tunnel.
+     */
+    public int getRestarts() {
+        return restarts.get();
+    }
+
+    /**
+     * @return The latency of the last successful probe, or null if none has succeeded yet.
+     */
+    public Duration getLastProbeLatency() {
+        return lastProbeLatency;
+    }
+
+    /**
+     * Stops monitoring. The tunnel itself is left running.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void watch() {
+        drainOutput(tunnel.getTunnelOutput());
+        // Check as soon as the process dies instead of waiting for the next scheduled check
+        tunnel.getTunnelProcess().onExit().thenRun(() -> {
+            ScheduledExecutorService current = scheduler;
+            if (current != null && !current.isShutdown()) {
+                current.execute(this::check);
+            }
+        });
+    }
+
+    private void drainOutput(BufferedReader output) {
+        if (output == null) {
+            return;
+        }
+        Thread.ofVirtual().name("tunnel-output").start(() -> {
+            try {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    ltLogger.debug("Tunnel output :- {}", line);
+                    if (isError(line)) {
+                        ltLogger.warn("Tunnel reported an error :- {}", line);
+                        synchronized (recentErrors) {
+                            recentErrors.addLast(System.nanoTime());
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                ltLogger.debug("Tunnel output closed :- {}", e.toString());
+            }
+        });
+    }
+
+    private boolean isError(String line) {
+        for (Pattern pattern : errorPatterns) {
+            if (pattern.matcher(line).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void check() {
+        if (state == State.FAILED) {
+            return;
+        }
+        String reason;
+        try {
+            reason = breachedThreshold();
+        } catch (RuntimeException e) {
+            // A throwing task would silently cancel the schedule, so log and try again next time
+            ltLogger.error("Tunnel health check failed :- {}", e.toString());
+            return;
+        }
+        if (reason == null) {
+            return;
+        }
+        ltLogger.error("Tunnel is unhealthy :- {}", reason);
+        if (restarts.get() >= maxRestarts) {
+            state = State.FAILED;
+            healthy.complete(null);
+            ltLogger.error("Tunnel restarted {} times already, giving up", restarts.get());
+            return;
+        }
+        restart();
+    }
+
+    private String breachedThreshold() {
+        Process process = tunnel.getTunnelProcess();
+        if (process == null || !process.isAlive()) {
+            return "process exited" + (process == null ? "" : " with code " + process.exitValue());
+        }
+
+        long windowStart = System.nanoTime() - errorWindow.toNanos();
+        synchronized (recentErrors) {
+            while (!recentErrors.isEmpty() && recentErrors.peekFirst() < windowStart) {
+                recentErrors.removeFirst();
+            }
+            if (recentErrors.size() >= errorLimit) {
+                return recentErrors.size() + " error lines within " + errorWindow.toSeconds() + " s";
+            }
+        }
+
+        Duration latency = probe();
+        if (latency == null || latency.compareTo(latencyThreshold) > 0) {
+            slowProbes++;
+            ltLogger.warn("Tunnel probe {} ({}/{})", latency == null ? "failed" : "took " + latency.toMillis() + " ms", slowProbes, slowProbeLimit);
+            if (slowProbes >= slowProbeLimit) {
+                return slowProbes + " consecutive slow or failed probes";
+            }
+        } else {
+            slowProbes = 0;
+        }
+        return null;
+    }
+
+    private Duration probe() {
+        int port = tunnel.getTunnelPort();
+        if (port < 0) {
+            return Duration.ZERO;
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + PROBE_PATH))
+                .timeout(latencyThreshold.multipliedBy(2))
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        try {
+            // Any HTTP answer shows the tunnel process is serving; only the time it took matters
+            probeClient.send(request, HttpResponse.BodyHandlers.discarding());
+            lastProbeLatency = Duration.ofNanos(System.nanoTime() - start);
+            return lastProbeLatency;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void restart() {
+        // Install the future before publishing the state, so awaitHealthy never sees RESTARTING with a done future
+        if (healthy.isDone()) {
+            healthy = new CompletableFuture<>();
+        }
+        state = State.RESTARTING;
+        restarts.incrementAndGet();
+        try {
+            tunnel.restartTunnel(maxTunnelRetries);
+            synchronized (recentErrors) {
+                recentErrors.clear();
+            }
+            slowProbes = 0;
+            watch();
+            state = State.HEALTHY;
+            healthy.complete(null);
+            ltLogger.info("Tunnel is healthy again after restart {}", restarts.get());
+        } catch (RuntimeException e) {
+            ltLogger.error("Tunnel restart failed :- {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package utility;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The VisualDiff class compares screenshots with their baselines inside the test JVM, fast enough to run on
+ * every step. Each image is decoded once into a packed RGB array. Identical images are recognised with a
+ * single array comparison and cost no further work. Otherwise the image is split into tiles that are compared
+ * in parallel on a fork-join pool, using a branch-free per-pixel kernel that the JIT compiles to SIMD
+ * instructions. Tiles are wide and short because the kernel runs along rows, and the diff mask uses the same
+ * layout as the pixels; the JIT needs both to vectorize the loop.
+ *
+ * <p>A pixel differs when one of its colour channels differs by more than the tolerance. Pixels inside an
+ * ignore region (a clock, an ad, a cursor) never count. When the images differ in size, the part covered by
+ * only one of them counts as different. The {@link VisualDiffResult} holds the share of differing pixels, a
+ * mask of where they are, their bounding box and the distance between the images' perceptual hashes.
+ */
+public class VisualDiff {
+    private final Logger ltLogger = LogManager.getLogger(VisualDiff.class);
+
+    private static final int HASH_WIDTH = 9;
+    private static final int HASH_HEIGHT = 8;
+
+    private final List<Rectangle> ignoreRegions = new ArrayList<>();
+    private int tolerance = 8;
+    private int tileWidth = 512;
+    private int tileHeight = 64;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Default constructor for the VisualDiff class.
+     * Initializes a comparison with a channel tolerance of 8, 512x64 tiles and no ignore regions.
+     */
+    public VisualDiff() {
+        super();
+    }
+
+    /**
+     * Sets how far a colour channel may differ before the pixel counts as different; absorbs anti-aliasing noise.
+     *
+     * @param tolerance The tolerance, from 0 (exact) to 255.
+     * @return This VisualDiff.
+     */
+    public VisualDiff setTolerance(int tolerance) {
+        if (tolerance < 0 || tolerance > 255) {
+            throw new IllegalArgumentException("Tolerance must be between 0 and 255");
+        }
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * @return The channel tolerance.
+     */
+    public int getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Sets the size of the tiles compared in parallel. Rows shorter than a few hundred pixels keep the
+     * kernel from making good use of SIMD instructions.
+     *
+     * @param tileWidth  The tile width in pixels.
+     * @param tileHeight The tile height in pixels.
+     * @return This VisualDiff.
+     */
+    public VisualDiff setTileSize(int tileWidth, int tileHeight) {
+        if (tileWidth < 16 || tileHeight < 1) {
+            throw new IllegalArgumentException("Tiles must be at least 16 pixels wide and 1 pixel high");
+        }
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        return this;
+    }
+
+    /**
+     * @return The tile width in pixels.
+     */
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    /**
+     * @return The tile height in pixels.
+     */
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    /**
+     * Sets the pool the tiles are compared on.
+     *
+     * @param pool The pool to use; the common pool by default.
+     * @return This VisualDiff.
+     */
+    public VisualDiff setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Excludes a region from the comparison.
+     *
+     * @param region The region in image coordinates.
+     * @return This VisualDiff.
+     */
+    public VisualDiff addIgnoreRegion(Rectangle region) {
+        ignoreRegions.add(new Rectangle(region));
+        return this;
+    }
+
+    /**
+     * @return The regions excluded from the comparison.
+     */
+    public List<Rectangle> getIgnoreRegions() {
+        return List.copyOf(ignoreRegions);
+    }
+
+    /**
+     * Compares a screenshot file with a baseline file.
+     *
+     * @param actual   The screenshot.
+     * @param baseline The baseline image.
+     * @return The comparison result.
+     * @throws IOException If either file cannot be read or is not an image.
+     */
+    public VisualDiffResult compare(File actual, File baseline) throws IOException {
+        return compare(Files.readAllBytes(actual.toPath()), Files.readAllBytes(baseline.toPath()));
+    }
+
+    /**
+     * Compares encoded images, for example a screenshot taken as {@code OutputType.BYTES} and a baseline file's bytes.
+     *
+     * @param actual   The screenshot, PNG or another format ImageIO can read.
+     * @param baseline The baseline image.
+     * @return The comparison result.
+     * @throws IOException If either image cannot be decoded.
+     */
+    public VisualDiffResult compare(byte[] actual, byte[] baseline) throws IOException {
+        long start = System.nanoTime();
+        if (Arrays.equals(actual, baseline)) {
+            // Byte-identical files: decode one of them only for its size, and skip the pixel comparison
+            BufferedImage image = decode(actual);
+            return identical(image.getWidth(), image.getHeight(), start);
+        }
+        return compare(decode(actual), decode(baseline), start);
+    }
+
+    /**
+     * Compares decoded images.
+     *
+     * @param actual   The screenshot.
+     * @param baseline The baseline image.
+     * @return The comparison result.
+     */
+    public VisualDiffResult compare(BufferedImage actual, BufferedImage baseline) {
+        return compare(actual, baseline, System.nanoTime());
+    }
+
+    private VisualDiffResult compare(BufferedImage actualImage, BufferedImage baselineImage, long start) {
+        int[] actual = pixels(actualImage);
+        int[] baseline = pixels(baselineImage);
+        int width = Math.max(actualImage.getWidth(), baselineImage.getWidth());
+        int height = Math.max(actualImage.getHeight(), baselineImage.getHeight());
+        int distance = Long.bitCount(perceptualHash(actual, actualImage.getWidth(), actualImage.getHeight())
+                ^ perceptualHash(baseline, baselineImage.getWidth(), baselineImage.getHeight()));
+
+        if (actualImage.getWidth() == baselineImage.getWidth() && Arrays.equals(actual, baseline)) {
+            return identical(width, height, start);
+        }
+
+        Comparison comparison = new Comparison(actual, actualImage.getWidth(), actualImage.getHeight(),
+                baseline, baselineImage.getWidth(), baselineImage.getHeight(), width, height);
+        int tilesAcross = (width + tileWidth - 1) / tileWidth;
+        int tileCount = tilesAcross * ((height + tileHeight - 1) / tileHeight);
+        TileResult total = pool.invoke(new TileTask(comparison, tilesAcross, 0, tileCount));
+
+        long compared = (long) width * height - comparison.ignoredPixels();
+        VisualDiffResult result = new VisualDiffResult(width, height, total.differing, compared, comparison.mask,
+                total.bounds, distance, Duration.ofNanos(System.nanoTime() - start));
+        ltLogger.info("Visual diff of {}x{} image in {} tiles :- {}", width, height, tileCount, result);
+        return result;
+    }
+
+    private VisualDiffResult identical(int width, int height, long start) {
+        long compared = (long) width * height - new Comparison(null, width, height, null, width, height, width, height).ignoredPixels();
+        VisualDiffResult result = new VisualDiffResult(width, height, 0, compared, null, null, 0, Duration.ofNanos(System.nanoTime() - start));
+        ltLogger.info("Visual diff of {}x{} image :- identical", width, height);
+        return result;
+    }
+
+    private static BufferedImage decode(byte[] encoded) throws IOException {
+        try (InputStream in = new ByteArrayInputStream(encoded)) {
+            BufferedImage image = ImageIO.read(in);
+            if (image == null) {
+                throw new IOException("Unsupported image format");
+            }
+            return image;
+        }
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        BufferedImage rgb = image;
+        if (image.getType() != BufferedImage.TYPE_INT_RGB && image.getType() != BufferedImage.TYPE_INT_ARGB) {
+            // One bulk conversion, so the kernel reads packed ints instead of going through the colour model per pixel
+            rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = rgb.createGraphics();
+            graphics.drawImage(image, 0, 0, null);
+            graphics.dispose();
+        }
+        int[] data = ((DataBufferInt) rgb.getRaster().getDataBuffer()).getData();
+        if (rgb.getType() == BufferedImage.TYPE_INT_ARGB) {
+            data = data.clone();
+            for (int i = 0; i < data.length; i++) {
+                data[i] &= 0xFFFFFF;
+            }
+        }
+        return data;
+    }
+
+    /**
+     * A difference hash: a 9x8 grid of block-averaged grey values, one bit per horizontally adjacent pair.
+     */
+    private static long perceptualHash(int[] pixels, int width, int height) {
+        int[] grey = new int[HASH_WIDTH * HASH_HEIGHT];
+        for (int cellY = 0; cellY < HASH_HEIGHT; cellY++) {
+            for (int cellX = 0; cellX < HASH_WIDTH; cellX++) {
+                int x0 = cellX * width / HASH_WIDTH;
+                int x1 = Math.max(x0 + 1, (cellX + 1) * width / HASH_WIDTH);
+                int y0 = cellY * height / HASH_HEIGHT;
+                int y1 = Math.max(y0 + 1, (cellY + 1) * height / HASH_HEIGHT);
+                // Sample at most 8x8 points per cell; the hash only needs coarse structure
+                int stepX = Math.max(1, (x1 - x0) / 8);
+                int stepY = Math.max(1, (y1 - y0) / 8);
+                long sum = 0;
+                int samples = 0;
+                for (int y = y0; y < y1 && y < height; y += stepY) {
+                    for (int x = x0; x < x1 && x < width; x += stepX) {
+                        int pixel = pixels[y * width + x];
+                        sum += ((pixel >> 16) & 0xFF) * 299 + ((pixel >> 8) & 0xFF) * 587 + (pixel & 0xFF) * 114;
+                        samples++;
+                    }
+                }
+                grey[cellY * HASH_WIDTH + cellX] = samples == 0 ? 0 : (int) (sum / samples);
+            }
+        }
+        long hash = 0;
+        for (int y = 0; y < HASH_HEIGHT; y++) {
+            for (int x = 0; x < HASH_WIDTH - 1; x++) {
+                hash = (hash << 1) | (grey[y * HASH_WIDTH + x] < grey[y * HASH_WIDTH + x + 1] ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Sets the mask to 1 for each pixel of a row segment whose largest channel difference exceeds the
+     * tolerance. The loop has no branches, and the three arrays share one index and one element size, so C2
+     * compiles it to SIMD instructions. A byte mask or separate offsets per array would stop that.
+     */
+    private static void diffRow(int[] actual, int[] baseline, int[] mask, int from, int to, int tolerance) {
+        for (int i = from; i < to; i++) {
+            int a = actual[i];
+            int b = baseline[i];
+            int red = Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF));
+            int green = Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF));
+            int blue = Math.abs((a & 0xFF) - (b & 0xFF));
+            mask[i] = (tolerance - Math.max(red, Math.max(green, blue))) >>> 31;
+        }
+    }
+
+    /**
+     * The same kernel for images of different widths, whose rows start at different offsets.
+     */
+    private static void diffRow(int[] actual, int actualOffset, int[] baseline, int baselineOffset,
+                                int[] mask, int maskOffset, int length, int tolerance) {
+        for (int i = 0; i < length; i++) {
+            int a = actual[actualOffset + i];
+            int b = baseline[baselineOffset + i];
+            int red = Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF));
+            int green = Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF));
+            int blue = Math.abs((a & 0xFF) - (b & 0xFF));
+            mask[maskOffset + i] = (tolerance - Math.max(red, Math.max(green, blue))) >>> 31;
+        }
+    }
+
+    private static int countRow(int[] mask, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            count += mask[i];
+        }
+        return count;
+    }
+
+    private final class Comparison {
+        private final int[] actual;
+        private final int actualWidth;
+        private final int actualHeight;
+        private final int[] baseline;
+        private final int baselineWidth;
+        private final int baselineHeight;
+        private final int width;
+        private final int height;
+        private final int[] mask;
+        private final List<Rectangle> ignored;
+
+        private Comparison(int[] actual, int actualWidth, int actualHeight, int[] baseline, int baselineWidth, int baselineHeight,
+                           int width, int height) {
+            this.actual = actual;
+            this.actualWidth = actualWidth;
+            this.actualHeight = actualHeight;
+            this.baseline = baseline;
+            this.baselineWidth = baselineWidth;
+            this.baselineHeight = baselineHeight;
+            this.width = width;
+            this.height = height;
+            this.mask = actual == null ? null : new int[width * height];
+            Rectangle bounds = new Rectangle(0, 0, width, height);
+            this.ignored = ignoreRegions.stream().map(bounds::intersection).filter(region -> !region.isEmpty()).toList();
+        }
+
+        private long ignoredPixels() {
+            // Overlapping regions are counted once by walking the rows
+            long pixels = 0;
+            for (int y = 0; y < height && !ignored.isEmpty(); y++) {
+                int covered = 0;
+                int end = 0;
+                List<Rectangle> rowRegions = new ArrayList<>();
+                for (Rectangle region : ignored) {
+                    if (y >= region.y && y < region.y + region.height) {
+                        rowRegions.add(region);
+                    }
+                }
+                rowRegions.sort((left, right) -> Integer.compare(left.x, right.x));
+                for (Rectangle region : rowRegions) {
+                    int from = Math.max(region.x, end);
+                    int to = region.x + region.width;
+                    if (to > from) {
+                        covered += to - from;
+                        end = to;
+                    }
+                }
+                pixels += covered;
+            }
+            return pixels;
+        }
+
+        private TileResult tile(int x0, int y0, int x1, int y1) {
+            int overlapWidth = Math.min(actualWidth, baselineWidth);
+            int overlapHeight = Math.min(actualHeight, baselineHeight);
+            int differing = 0;
+            int minX = Integer.MAX_VALUE;
+            int minY = Integer.MAX_VALUE;
+            int maxX = -1;
+            int maxY = -1;
+            for (int y = y0; y < y1; y++) {
+                int row = y * width;
+                int kernelEnd = y < overlapHeight ? Math.max(x0, Math.min(x1, overlapWidth)) : x0;
+                if (kernelEnd > x0 && actualWidth == width && baselineWidth == width) {
+                    diffRow(actual, baseline, mask, row + x0, row + kernelEnd, tolerance);
+                } else if (kernelEnd > x0) {
+                    diffRow(actual, y * actualWidth + x0, baseline, y * baselineWidth + x0, mask, row + x0, kernelEnd - x0, tolerance);
+                }
+                // Pixels present in only one of the images always differ
+                Arrays.fill(mask, row + kernelEnd, row + x1, 1);
+                for (Rectangle region : ignored) {
+                    if (y >= region.y && y < region.y + region.height) {
+                        int from = Math.max(x0, region.x);
+                        int to = Math.min(x1, region.x + region.width);
+                        if (to > from) {
+                            Arrays.fill(mask, row + from, row + to, 0);
+                        }
+                    }
+                }
+                int rowDiffering = countRow(mask, row + x0, row + x1);
+                if (rowDiffering > 0) {
+                    differing += rowDiffering;
+                    minY = Math.min(minY, y);
+                    maxY = y;
+                    int first = x0;
+                    while (mask[row + first] == 0) {
+                        first++;
+                    }
+                    int last = x1 - 1;
+                    while (mask[row + last] == 0) {
+                        last--;
+                    }
+                    minX = Math.min(minX, first);
+                    maxX = Math.max(maxX, last);
+                }
+            }
+            return new TileResult(differing, maxX < 0 ? null : new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1));
+        }
+    }
+
+    private record TileResult(long differing, Rectangle bounds) {
+        private TileResult merge(TileResult other) {
+            Rectangle merged = bounds == null ? other.bounds : other.bounds == null ? bounds : bounds.union(other.bounds);
+            return new TileResult(differing + other.differing, merged);
+        }
+    }
+
+    // Tasks live only within one fork/join run and are never serialized
+    @SuppressWarnings("serial")
+    private final class TileTask extends RecursiveTask<TileResult> {
+        private final Comparison comparison;
+        private final int tilesAcross;
+        private final int from;
+        private final int to;
+
+        private TileTask(Comparison comparison, int tilesAcross, int from, int to) {
+            this.comparison = comparison;
+            this.tilesAcross = tilesAcross;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TileResult compute() {
+            if (to - from == 1) {
+                int x0 = (from % tilesAcross) * tileWidth;
+                int y0 = (from / tilesAcross) * tileHeight;
+                return comparison.tile(x0, y0, Math.min(x0 + tileWidth, comparison.width), Math.min(y0 + tileHeight, comparison.height));
+            }
+            int middle = (from + to) >>> 1;
+            TileTask left = new TileTask(comparison, tilesAcross, from, middle);
+            left.fork();
+            TileResult right = new TileTask(comparison, tilesAcross, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
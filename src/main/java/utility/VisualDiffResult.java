@@ -0,0 +1,166 @@
+package utility;
+
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * The VisualDiffResult class holds the outcome of one {@link VisualDiff} comparison.
+ */
+public class VisualDiffResult {
+    private final int width;
+    private final int height;
+    private final long differingPixels;
+    private final long comparedPixels;
+    private final int[] mask;
+    private final Rectangle bounds;
+    private final int perceptualDistance;
+    private final Duration elapsed;
+
+    /**
+     * Constructs a VisualDiffResult.
+     *
+     * @param width              The width of the compared area, the larger of the two images.
+     * @param height             The height of the compared area, the larger of the two images.
+     * @param differingPixels    The number of differing pixels outside the ignore regions.
+     * @param comparedPixels     The number of pixels outside the ignore regions.
+     * @param mask               One value per pixel, row by row, 1 where the pixel differs; null if nothing differs.
+     * @param bounds             The bounding box of the differing pixels, or null if nothing differs.
+     * @param perceptualDistance The number of differing bits between the images' 64-bit perceptual hashes.
+     * @param elapsed            The time the comparison took, including decoding.
+     */
+    public VisualDiffResult(int width, int height, long differingPixels, long comparedPixels, int[] mask, Rectangle bounds,
+                            int perceptualDistance, Duration elapsed) {
+        this.width = width;
+        this.height = height;
+        this.differingPixels = differingPixels;
+        this.comparedPixels = comparedPixels;
+        this.mask = differingPixels == 0 ? null : mask;
+        this.bounds = bounds;
+        this.perceptualDistance = perceptualDistance;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * @return The width of the compared area.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The height of the compared area.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return The number of differing pixels outside the ignore regions.
+     */
+    public long getDifferingPixels() {
+        return differingPixels;
+    }
+
+    /**
+     * @return The number of pixels outside the ignore regions.
+     */
+    public long getComparedPixels() {
+        return comparedPixels;
+    }
+
+    /**
+     * @return The diff score: the share of compared pixels that differ, from 0.0 to 1.0.
+     */
+    public double getDiffRatio() {
+        return comparedPixels == 0 ? 0 : (double) differingPixels / comparedPixels;
+    }
+
+    /**
+     * @return true if no compared pixel differs.
+     */
+    public boolean isIdentical() {
+        return differingPixels == 0;
+    }
+
+    /**
+     * Checks the diff score against a threshold.
+     *
+     * @param maxDiffRatio The largest acceptable share of differing pixels, for example 0.001.
+     * @return true if the images match within the threshold.
+     */
+    public boolean matches(double maxDiffRatio) {
+        return getDiffRatio() <= maxDiffRatio;
+    }
+
+    /**
+     * @return The bounding box of the differing pixels, or null if nothing differs.
+     */
+    public Rectangle getBounds() {
+        return bounds == null ? null : new Rectangle(bounds);
+    }
+
+    /**
+     * @return The number of differing bits between the images' perceptual hashes: 0 for the same layout,
+     *         above about 10 for a different page.
+     */
+    public int getPerceptualDistance() {
+        return perceptualDistance;
+    }
+
+    /**
+     * @return The time the comparison took, including decoding.
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Builds the diff mask as an image, white where pixels differ and black elsewhere.
+     *
+     * @return The mask image.
+     */
+    public BufferedImage getMaskImage() {
+        IndexColorModel blackAndWhite = new IndexColorModel(1, 2, new byte[]{0, -1}, new byte[]{0, -1}, new byte[]{0, -1});
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY, blackAndWhite);
+        if (mask != null) {
+            WritableRaster raster = image.getRaster();
+            raster.setSamples(0, 0, width, height, 0, mask);
+        }
+        return image;
+    }
+
+    /**
+     * Writes the diff mask as a PNG file.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeMask(File file) throws IOException {
+        ImageIO.write(getMaskImage(), "png", file);
+    }
+
+    /**
+     * Builds a one-line human-readable summary of the comparison.
+     *
+     * @return The summary string.
+     */
+    public String summary() {
+        if (isIdentical()) {
+            return String.format("Identical %dx%d in %d ms", width, height, elapsed.toMillis());
+        }
+        return String.format("Differing :- %d of %d pixels (%.4f%%), Bounds :- %dx%d at %d,%d, Perceptual distance :- %d, Time :- %d ms",
+                differingPixels, comparedPixels, getDiffRatio() * 100, bounds.width, bounds.height, bounds.x, bounds.y,
+                perceptualDistance, elapsed.toMillis());
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+}
@@ -0,0 +1,147 @@
+package artifacts;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests {@link ArtifactDownloader} against an in-process HTTP server that serves byte ranges and can cut every
+ * ranged response off halfway, the way a dropped connection does.
+ */
+public class ArtifactDownloaderTest {
+    private static final int ARTIFACT_SIZE = 1 << 20;
+    private static final long PART_SIZE = 64 << 10;
+
+    private final byte[] artifact = new byte[ARTIFACT_SIZE];
+    private final List<String> ranges = new CopyOnWriteArrayList<>();
+    private volatile boolean cutRanges;
+    private HttpServer server;
+    private URI uri;
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        new Random(42).nextBytes(artifact);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/video.mp4", this::serve);
+        server.start();
+        uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/video.mp4");
+        directory = Files.createTempDirectory("artifact-downloader-test");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        server.stop(0);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void downloadsRangesInParallelAndVerifiesChecksum() throws Exception {
+        Path target = directory.resolve("video.mp4");
+
+        DownloadResult result = new ArtifactDownloader(8, 4, PART_SIZE).download(uri, target, sha256(artifact));
+
+        assertTrue(result.isSuccessful());
+        assertEquals(result.getSize(), ARTIFACT_SIZE);
+        assertEquals(result.getParts(), 4);
+        assertEquals(result.getResumedBytes(), 0);
+        assertEquals(Files.readAllBytes(target), artifact);
+        assertFalse(Files.exists(directory.resolve("video.mp4.partial")));
+        assertFalse(Files.exists(directory.resolve("video.mp4.progress")));
+    }
+
+    @Test
+    public void resumesInterruptedDownloadFromPartialFile() throws Exception {
+        Path target = directory.resolve("video.mp4");
+        ArtifactDownloader downloader = new ArtifactDownloader(8, 4, PART_SIZE);
+
+        cutRanges = true;
+        expectThrows(IOException.class, () -> downloader.download(uri, target));
+        assertFalse(Files.exists(target));
+        assertTrue(Files.exists(directory.resolve("video.mp4.partial")));
+        assertTrue(Files.exists(directory.resolve("video.mp4.progress")));
+
+        cutRanges = false;
+        ranges.clear();
+        DownloadResult result = downloader.download(uri, target, sha256(artifact));
+
+        assertTrue(result.getResumedBytes() > 0, "Nothing was resumed :- " + result);
+        assertEquals(Files.readAllBytes(target), artifact);
+        // Every range after the size probe continues where the interrupted one stopped, not at a part boundary
+        for (String range : ranges.subList(1, ranges.size())) {
+            long from = Long.parseLong(range.substring("bytes=".length(), range.indexOf('-')));
+            assertTrue(from % PART_SIZE != 0, "Range " + range + " was downloaded again from its start");
+        }
+    }
+
+    @Test
+    public void rejectsChecksumMismatchAndDiscardsDownload() {
+        Path target = directory.resolve("video.mp4");
+        String wrongChecksum = "00".repeat(32);
+
+        IOException failure = expectThrows(IOException.class,
+                () -> new ArtifactDownloader(8, 4, PART_SIZE).download(uri, target, wrongChecksum));
+
+        assertTrue(failure.getMessage().contains("Checksum mismatch"), failure.getMessage());
+        assertFalse(Files.exists(target));
+        assertFalse(Files.exists(directory.resolve("video.mp4.partial")));
+        assertFalse(Files.exists(directory.resolve("video.mp4.progress")));
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        if (range == null) {
+            exchange.sendResponseHeaders(200, artifact.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(artifact);
+            }
+            return;
+        }
+        ranges.add(range);
+        int dash = range.indexOf('-');
+        int from = Integer.parseInt(range.substring("bytes=".length(), dash));
+        int to = Math.min(artifact.length - 1, Integer.parseInt(range.substring(dash + 1)));
+        int length = to - from + 1;
+        exchange.getResponseHeaders().add("Content-Range", "bytes " + from + "-" + to + "/" + artifact.length);
+        exchange.sendResponseHeaders(206, length);
+        OutputStream body = exchange.getResponseBody();
+        if (cutRanges && length > 1) {
+            body.write(artifact, from, length / 2);
+            body.flush();
+            // Drops the connection with the rest of the range unsent
+            throw new IOException("Connection cut by test");
+        }
+        body.write(artifact, from, length);
+        body.close();
+    }
+
+    private static String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+}
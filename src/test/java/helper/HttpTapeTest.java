@@ -0,0 +1,162 @@
+package helper;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests {@link HttpTape} by recording exchanges with an in-process HTTP server and replaying them after the
+ * server has stopped.
+ */
+public class HttpTapeTest {
+    private static final String SECRET_TOKEN = "Bearer secret-token-123";
+    private static final String SECRET_COOKIE = "session=secret-cookie-456";
+    // Longer than the 65535 bytes DataOutputStream.writeUTF can hold
+    private static final String LONG_VALUE = "x".repeat(70_000);
+
+    private final AtomicInteger served = new AtomicInteger();
+    private HttpServer server;
+    private String uri;
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        served.set(0);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/items", this::serve);
+        server.start();
+        uri = "http://127.0.0.1:" + server.getAddress().getPort() + "/items";
+        directory = Files.createTempDirectory("http-tape-test");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        server.stop(0);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void replaysRecordedExchangesWithoutNetwork() throws IOException {
+        record();
+        server.stop(0);
+
+        try (HttpTape tape = new HttpTape(directory, HttpTape.Mode.REPLAY)) {
+            APIHelper apiHelper = helperWith(tape);
+            Response first = get(apiHelper, "1");
+            Response second = get(apiHelper, "2");
+
+            assertEquals(first.getStatusCode(), 200);
+            assertEquals(first.asString(), "item 1");
+            assertEquals(first.getHeader("X-Long"), LONG_VALUE);
+            assertEquals(second.asString(), "item 2");
+            assertEquals(tape.getReplayed(), 2);
+            expectThrows(IllegalStateException.class, () -> get(apiHelper, "3"));
+        }
+    }
+
+    @Test
+    public void rebuildsMissingIndexFromData() throws IOException {
+        record();
+        server.stop(0);
+        Files.delete(directory.resolve("tape.idx"));
+
+        try (HttpTape tape = new HttpTape(directory, HttpTape.Mode.REPLAY)) {
+            assertEquals(get(helperWith(tape), "2").asString(), "item 2");
+        }
+        assertTrue(Files.size(directory.resolve("tape.idx")) > 0);
+    }
+
+    @Test
+    public void keepsCredentialsOutOfTape() throws IOException {
+        record();
+
+        for (String file : new String[]{"tape.dat", "tape.idx"}) {
+            String content = new String(Files.readAllBytes(directory.resolve(file)), StandardCharsets.ISO_8859_1);
+            assertFalse(content.contains("secret-token-123"), file + " holds the Authorization header");
+            assertFalse(content.contains("secret-cookie-456"), file + " holds the Set-Cookie header");
+            assertTrue(content.contains("sha256:"), file);
+        }
+    }
+
+    @Test
+    public void matchesOnRedactedHeader() throws IOException {
+        try (HttpTape tape = new HttpTape(directory, HttpTape.Mode.RECORD, new TapeMatchRule().matchHeaders("Authorization"))) {
+            get(helperWith(tape), "1");
+        }
+        server.stop(0);
+
+        try (HttpTape tape = new HttpTape(directory, HttpTape.Mode.REPLAY, new TapeMatchRule().matchHeaders("Authorization"))) {
+            APIHelper apiHelper = helperWith(tape);
+            assertEquals(get(apiHelper, "1").asString(), "item 1");
+            expectThrows(IllegalStateException.class, () -> apiHelper.httpMethod("GET", uri, null, null,
+                    Map.of("Authorization", "Bearer other"), Map.of("id", "1"), 200));
+        }
+    }
+
+    @Test
+    public void returnsResponseWhenRecordingFails() throws IOException {
+        HttpTape tape = new HttpTape(directory, HttpTape.Mode.RECORD);
+        // A closed tape cannot be written to
+        tape.close();
+
+        Response response = get(helperWith(tape), "1");
+
+        assertEquals(response.asString(), "item 1");
+        assertEquals(tape.getRecorded(), 0);
+    }
+
+    private void record() throws IOException {
+        try (HttpTape tape = new HttpTape(directory, HttpTape.Mode.RECORD)) {
+            APIHelper apiHelper = helperWith(tape);
+            get(apiHelper, "1");
+            get(apiHelper, "2");
+            assertEquals(tape.getRecorded(), 2);
+        }
+        assertEquals(served.get(), 2);
+    }
+
+    private static APIHelper helperWith(HttpTape tape) {
+        APIHelper apiHelper = new APIHelper();
+        apiHelper.setHttpTape(tape);
+        return apiHelper;
+    }
+
+    private Response get(APIHelper apiHelper, String id) {
+        return apiHelper.httpMethod("GET", uri, null, null, Map.of("Authorization", SECRET_TOKEN), Map.of("id", id), 200);
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        served.incrementAndGet();
+        String id = exchange.getRequestURI().getQuery().substring("id=".length());
+        byte[] body = ("item " + id).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Set-Cookie", SECRET_COOKIE);
+        exchange.getResponseHeaders().add("X-Long", LONG_VALUE);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
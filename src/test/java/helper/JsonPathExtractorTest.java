@@ -0,0 +1,53 @@
+package helper;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests {@link JsonPathExtractor} on well-formed documents and on malformed ones it must reject.
+ */
+public class JsonPathExtractorTest {
+
+    @Test
+    public void extractsScalarsAndMaterializedValues() {
+        Map<String, Object> found = extract("{\"data\":{\"id\":-12,\"tags\":[\"a\",\"b\"],\"meta\":{\"ok\":true,\"n\":null}},\"skip\":[1,2]}",
+                "data.id", "data.tags", "data.meta", "data.tags[1]");
+
+        assertEquals(found.get("data.id"), -12);
+        assertEquals(found.get("data.tags"), List.of("a", "b"));
+        assertEquals(found.get("data.tags[1]"), "b");
+        assertTrue(found.get("data.meta") instanceof Map<?, ?>);
+        assertEquals(((Map<?, ?>) found.get("data.meta")).get("ok"), Boolean.TRUE);
+    }
+
+    @DataProvider
+    public Object[][] malformedDocuments() {
+        return new Object[][]{
+                {"{\"a\":{\"x\":1 \"y\":2}}"},
+                {"{\"a\":{\"x\":1]}"},
+                {"{\"a\":[1 2]}"},
+                {"{\"a\":[1}"},
+                {"{\"a\":-}"},
+                {"{\"a\":1-2}"},
+        };
+    }
+
+    @Test(dataProvider = "malformedDocuments")
+    public void rejectsMalformedDocument(String json) {
+        IllegalArgumentException failure = expectThrows(IllegalArgumentException.class, () -> extract(json, "a"));
+
+        assertTrue(failure.getMessage().contains("of JSON response"), failure.getMessage());
+    }
+
+    private static Map<String, Object> extract(String json, String... paths) {
+        return JsonPathExtractor.compile(paths).extract(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,126 @@
+package helper;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests {@link LoadGenerator} against an in-process HTTP server that can answer with errors or stall.
+ */
+public class LoadGeneratorTest {
+    private static final double RATE = 50;
+    private static final Duration DURATION = Duration.ofSeconds(1);
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int failEvery;
+    private volatile long stallMillis;
+    private volatile long stallUntilNanos = System.nanoTime();
+    private HttpServer server;
+    private String uri;
+    private APIHelper apiHelper;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        failEvery = 0;
+        stallMillis = 0;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/load", this::serve);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        uri = "http://127.0.0.1:" + server.getAddress().getPort() + "/load";
+        apiHelper = new APIHelper();
+        // Loads the HTTP client classes so the first scheduled request is not charged for them
+        apiHelper.httpMethod("GET", uri, null, null, null, null, 200);
+        requests.set(0);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void achievesTargetRate() {
+        LoadResult result = apiHelper.loadTest("GET", uri, null, null, null, null, 200, RATE, DURATION);
+
+        assertEquals(result.getSent(), 50);
+        assertEquals(result.getSucceeded(), 50);
+        assertEquals(requests.get(), 50);
+        assertTrue(result.getThroughput() >= RATE * 0.8 && result.getThroughput() <= RATE * 1.1, result.summary());
+        assertTrue(result.getLatencyMillis(50) < 100, result.summary());
+    }
+
+    @Test
+    public void chargesServerStallToEveryRequestThatWaited() {
+        // The server pauses for 600 ms from the first request; everything arriving meanwhile waits for the pause to end
+        stallMillis = 600;
+
+        LoadResult result = apiHelper.loadTest("GET", uri, null, null, null, null, 200, RATE, DURATION);
+
+        assertEquals(result.getSucceeded(), 50);
+        assertTrue(result.getLatencyMillis(100) >= 550, result.summary());
+        // Measured from when each request should have gone out, the 25 or so scheduled during the pause each
+        // waited 100 ms or more, not just the one request that hit it
+        assertTrue(result.getLatencyMillis(60) >= 100, result.summary());
+    }
+
+    @Test
+    public void countsServerErrorsAsFailures() {
+        failEvery = 5;
+
+        LoadResult result = apiHelper.loadTest("GET", uri, null, null, null, null, 200, RATE, DURATION);
+
+        assertEquals(result.getFailed(), 10);
+        assertEquals(result.getSucceeded(), 40);
+        assertEquals(result.getErrorRate(), 0.2, 1e-9);
+    }
+
+    @Test
+    public void countsStatusMismatchAsFailure() {
+        LoadResult result = apiHelper.loadTest("POST", uri, "{}", null, null, null, 201, RATE, DURATION);
+
+        assertEquals(result.getFailed(), 50);
+        assertEquals(result.getErrorRate(), 1.0, 1e-9);
+        assertEquals(requests.get(), 50);
+    }
+
+    @Test
+    public void bypassesResponseCacheAndCoalescer() {
+        apiHelper.setResponseCache(new ResponseCache(10, Duration.ofMinutes(1)));
+        apiHelper.setRequestCoalescer(new SingleFlight<>());
+
+        LoadResult result = apiHelper.loadTest("GET", uri, null, null, null, null, 200, RATE, DURATION);
+
+        assertEquals(result.getSucceeded(), 50);
+        assertEquals(requests.get(), 50, "Every scheduled request must reach the server");
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        int request = requests.incrementAndGet();
+        if (request == 1 && stallMillis > 0) {
+            stallUntilNanos = System.nanoTime() + Duration.ofMillis(stallMillis).toNanos();
+        }
+        long stallNanos = stallUntilNanos - System.nanoTime();
+        if (stallNanos > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(stallNanos));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int status = failEvery > 0 && request % failEvery == 0 ? 500 : 200;
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+}
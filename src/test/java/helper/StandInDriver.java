@@ -0,0 +1,235 @@
+package helper;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The StandInDriver class stands in for a browser in tests of the Java side of the readiness wait. It opens local
+ * static HTML pages but runs no JavaScript: the readiness script is answered from the {@code data-busy-millis}
+ * declared on the page's body, completing once that time and the requested quiet period have passed since the page
+ * opened, or failing with a script timeout. Every script call is recorded with its arguments and script timeout.
+ */
+class StandInDriver implements WebDriver, JavascriptExecutor {
+  private static final Pattern TITLE = Pattern.compile("<title>(.*?)</title>", Pattern.DOTALL);
+  private static final Pattern BUSY_MILLIS = Pattern.compile("data-busy-millis=\"(\\d+)\"");
+
+  private final List<String> scripts = new ArrayList<>();
+  private final List<List<Object>> scriptArguments = new ArrayList<>();
+  private final List<Duration> scriptTimeoutsSeen = new ArrayList<>();
+  private final StandInTimeouts timeouts = new StandInTimeouts();
+  private String currentUrl;
+  private String pageSource;
+  private long openedAt;
+
+  /**
+   * @return The scripts executed so far, in order.
+   */
+  List<String> getScripts() {
+    return scripts;
+  }
+
+  /**
+   * @return The arguments of each script executed so far, in order.
+   */
+  List<List<Object>> getScriptArguments() {
+    return scriptArguments;
+  }
+
+  /**
+   * @return The script timeout in force at each asynchronous script call.
+   */
+  List<Duration> getScriptTimeoutsSeen() {
+    return scriptTimeoutsSeen;
+  }
+
+  @Override
+  public void get(String url) {
+    try {
+      pageSource = Files.readString(Paths.get(URI.create(url)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    currentUrl = url;
+    openedAt = System.nanoTime();
+  }
+
+  @Override
+  public String getCurrentUrl() {
+    return currentUrl;
+  }
+
+  @Override
+  public String getTitle() {
+    Matcher title = TITLE.matcher(pageSource);
+    return title.find() ? title.group(1).trim() : "";
+  }
+
+  @Override
+  public String getPageSource() {
+    return pageSource;
+  }
+
+  @Override
+  public Object executeScript(String script, Object... args) {
+    scripts.add(script);
+    scriptArguments.add(List.of(args));
+    return null;
+  }
+
+  @Override
+  public Object executeAsyncScript(String script, Object... args) {
+    scripts.add(script);
+    scriptArguments.add(List.of(args));
+    scriptTimeoutsSeen.add(timeouts.scriptTimeout);
+    if (!BrowserScripts.AWAIT_READINESS.equals(script)) {
+      throw new UnsupportedOperationException("StandInDriver only answers the readiness script");
+    }
+    Matcher busy = BUSY_MILLIS.matcher(pageSource);
+    long busyMillis = busy.find() ? Long.parseLong(busy.group(1)) : 0;
+    long readyAt = openedAt + TimeUnit.MILLISECONDS.toNanos(busyMillis + ((Number) args[0]).longValue());
+    long remaining = readyAt - System.nanoTime();
+    if (remaining > timeouts.scriptTimeout.toNanos()) {
+      sleep(timeouts.scriptTimeout.toNanos());
+      throw new ScriptTimeoutException("Timed out waiting for the readiness script");
+    }
+    sleep(remaining);
+    return Boolean.TRUE;
+  }
+
+  @Override
+  public Options manage() {
+    return (Options) Proxy.newProxyInstance(Options.class.getClassLoader(), new Class<?>[]{Options.class},
+        (proxy, method, args) -> {
+          if (method.getName().equals("timeouts")) {
+            return timeouts;
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+  @Override
+  public List<WebElement> findElements(By by) {
+    throw new UnsupportedOperationException("findElements");
+  }
+
+  @Override
+  public WebElement findElement(By by) {
+    throw new UnsupportedOperationException("findElement");
+  }
+
+  @Override
+  public void close() {
+  }
+
+  @Override
+  public void quit() {
+  }
+
+  @Override
+  public Set<String> getWindowHandles() {
+    return Collections.singleton("stand-in");
+  }
+
+  @Override
+  public String getWindowHandle() {
+    return "stand-in";
+  }
+
+  @Override
+  public TargetLocator switchTo() {
+    throw new UnsupportedOperationException("switchTo");
+  }
+
+  @Override
+  public Navigation navigate() {
+    throw new UnsupportedOperationException("navigate");
+  }
+
+  private static void sleep(long nanos) {
+    if (nanos <= 0) {
+      return;
+    }
+    try {
+      TimeUnit.NANOSECONDS.sleep(nanos);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static final class StandInTimeouts implements Timeouts {
+    private Duration implicitWait = Duration.ZERO;
+    private Duration scriptTimeout = Duration.ofSeconds(30);
+    private Duration pageLoadTimeout = Duration.ofMinutes(5);
+
+    @Override
+    public Timeouts implicitlyWait(long time, TimeUnit unit) {
+      return implicitlyWait(Duration.ofNanos(unit.toNanos(time)));
+    }
+
+    @Override
+    public Timeouts implicitlyWait(Duration duration) {
+      implicitWait = duration;
+      return this;
+    }
+
+    @Override
+    public Duration getImplicitWaitTimeout() {
+      return implicitWait;
+    }
+
+    @Override
+    public Timeouts setScriptTimeout(long time, TimeUnit unit) {
+      return scriptTimeout(Duration.ofNanos(unit.toNanos(time)));
+    }
+
+    @Override
+    public Timeouts setScriptTimeout(Duration duration) {
+      return scriptTimeout(duration);
+    }
+
+    @Override
+    public Timeouts scriptTimeout(Duration duration) {
+      scriptTimeout = duration;
+      return this;
+    }
+
+    @Override
+    public Duration getScriptTimeout() {
+      return scriptTimeout;
+    }
+
+    @Override
+    public Timeouts pageLoadTimeout(long time, TimeUnit unit) {
+      return pageLoadTimeout(Duration.ofNanos(unit.toNanos(time)));
+    }
+
+    @Override
+    public Timeouts pageLoadTimeout(Duration duration) {
+      pageLoadTimeout = duration;
+      return this;
+    }
+
+    @Override
+    public Duration getPageLoadTimeout() {
+      return pageLoadTimeout;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package helper;
+
+import org.openqa.selenium.TimeoutException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests {@link WebDriverHelper#waitForPageReady} against local static pages opened in a {@link StandInDriver}.
+ * These are plumbing tests: they check what the helper sends to the browser and how it handles the answer. The
+ * stand-in runs no JavaScript, so the tracker's behaviour in a page is only covered by the checks on the script text.
+ */
+public class WebDriverHelperReadinessTest {
+  private StandInDriver driver;
+  private WebDriverHelper helper;
+
+  @BeforeMethod
+  public void setUp() {
+    driver = new StandInDriver();
+    helper = new WebDriverHelper(driver);
+  }
+
+  @Test
+  public void sendsTrackerAndWaitAsOneScriptCall() throws URISyntaxException {
+    helper.getURL(page("busy-page.html"));
+    assertEquals(helper.getTitle(), "Busy page");
+
+    helper.waitForPageReady(200, 5);
+
+    assertEquals(driver.getScripts().size(), 1, "Tracker install and wait must be one round-trip");
+    assertEquals(driver.getScripts().get(0), BrowserScripts.AWAIT_READINESS);
+    assertEquals(driver.getScriptArguments().get(0), List.of(200), "The quiet period must be the only argument");
+  }
+
+  @Test
+  public void readinessScriptInstallsTrackerOnceAndReadsItsArguments() {
+    String script = BrowserScripts.AWAIT_READINESS;
+
+    assertTrue(script.startsWith(BrowserScripts.INSTALL_READINESS_TRACKER));
+    assertEquals(occurrences(script, "new MutationObserver("), 1);
+    assertEquals(occurrences(script, "window.fetch = "), 1);
+    assertEquals(occurrences(script, "XMLHttpRequest.prototype.send = "), 1);
+    // A second call on the same page must reuse the tracker instead of wrapping fetch and XHR again
+    assertTrue(BrowserScripts.INSTALL_READINESS_TRACKER.contains("if (window.__ltqaReadiness) { return; }"));
+    assertTrue(script.contains("var quietMillis = arguments[0];"));
+    assertTrue(script.contains("var done = arguments[arguments.length - 1];"));
+  }
+
+  @Test
+  public void appliesTimeoutOnlyForTheWait() throws URISyntaxException {
+    driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(7));
+    helper.getURL(page("quiet-page.html"));
+
+    helper.waitForPageReady(50, 3);
+
+    assertEquals(driver.getScriptTimeoutsSeen().get(0), Duration.ofSeconds(3));
+    assertEquals(driver.manage().timeouts().getScriptTimeout(), Duration.ofSeconds(7));
+  }
+
+  @Test
+  public void reportsPageThatNeverSettlesAsTimeout() throws URISyntaxException {
+    helper.getURL(page("busy-page.html"));
+
+    TimeoutException timeout = expectThrows(TimeoutException.class, () -> helper.waitForPageReady(2000, 1));
+
+    assertTrue(timeout.getMessage().contains("within 1 seconds"), timeout.getMessage());
+    assertEquals(driver.manage().timeouts().getScriptTimeout(), Duration.ofSeconds(30));
+  }
+
+  @Test
+  public void costsOneRoundTripPerPage() throws URISyntaxException {
+    helper.getURL(page("quiet-page.html"));
+    helper.waitForPageReady(20, 3);
+    helper.getURL(page("busy-page.html"));
+    helper.waitForPageReady(20, 3);
+    helper.waitForPageReady(20, 3);
+
+    assertEquals(driver.getScripts().size(), 3);
+  }
+
+  private static int occurrences(String text, String part) {
+    int count = 0;
+    for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + part.length())) {
+      count++;
+    }
+    return count;
+  }
+
+  private String page(String name) throws URISyntaxException {
+    return getClass().getResource("/pages/" + name).toURI().toString();
+  }
+}
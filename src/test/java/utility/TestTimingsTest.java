@@ -0,0 +1,82 @@
+package utility;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests how {@link TestTimings} splits a test's time between WebDriver commands, waits and nested calls.
+ */
+public class TestTimingsTest {
+    private TestTimings timings;
+
+    @BeforeMethod
+    public void setUp() {
+        timings = TestTimings.begin();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        TestTimings.end();
+    }
+
+    @Test
+    public void countsEachCommandOnce() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            TimeUnit.MILLISECONDS.sleep(10);
+            TestTimings.recordCommand(start);
+        }
+
+        assertEquals(timings.getCount(TestTimings.Category.WEBDRIVER), 3);
+        assertTrue(timings.getMillis(TestTimings.Category.WEBDRIVER) >= 30, timings.toString());
+    }
+
+    @Test
+    public void countsCommandsSentDuringWaitAsPartOfTheWait() throws InterruptedException {
+        long wait = TestTimings.beginWait();
+        for (int i = 0; i < 3; i++) {
+            long poll = System.nanoTime();
+            TimeUnit.MILLISECONDS.sleep(10);
+            TestTimings.recordCommand(poll);
+        }
+        TestTimings.endWait(wait);
+
+        long after = System.nanoTime();
+        TestTimings.recordCommand(after);
+
+        assertEquals(timings.getCount(TestTimings.Category.WAIT), 1);
+        assertTrue(timings.getMillis(TestTimings.Category.WAIT) >= 30, timings.toString());
+        assertEquals(timings.getCount(TestTimings.Category.WEBDRIVER), 1, "Only the command after the wait counts on its own");
+    }
+
+    @Test
+    public void subtractsNestedDriverCreationFromTheCommandThatStartedIt() throws InterruptedException {
+        long command = System.nanoTime();
+        long create = System.nanoTime();
+        TimeUnit.MILLISECONDS.sleep(50);
+        TestTimings.record(TestTimings.Category.DRIVER_CREATE, create);
+        TestTimings.recordCommand(command);
+
+        assertTrue(timings.getMillis(TestTimings.Category.DRIVER_CREATE) >= 50, timings.toString());
+        assertTrue(timings.getMillis(TestTimings.Category.WEBDRIVER) < 50, timings.toString());
+    }
+
+    @Test
+    public void recordsNothingWithoutAccumulator() {
+        TestTimings.end();
+
+        TestTimings.endWait(TestTimings.beginWait());
+        TestTimings.recordCommand(System.nanoTime());
+
+        assertNull(TestTimings.current());
+        assertEquals(timings.getCount(TestTimings.Category.WAIT), 0);
+        assertEquals(timings.getCount(TestTimings.Category.WEBDRIVER), 0);
+    }
+}
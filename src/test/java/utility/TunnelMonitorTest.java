@@ -0,0 +1,121 @@
+package utility;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests {@link TunnelMonitor} against a fake tunnel process, a shell script that starts up like the tunnel binary
+ * and then exits or reports errors when the test tells it to.
+ */
+public class TunnelMonitorTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private Path control;
+    private Tunnel tunnel;
+    private TunnelMonitor monitor;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        control = Files.createTempDirectory("fake-tunnel");
+        String script = Paths.get(getClass().getResource("/fake-tunnel/fake-tunnel.sh").toURI()).toString();
+        tunnel = new Tunnel("user", "key", "fake-tunnel");
+        assertTrue(tunnel.isTunnelStatusSuccess(new ProcessBuilder("/bin/sh", script, control.toString(), "--port", "0")));
+
+        monitor = new TunnelMonitor(tunnel);
+        monitor.setCheckInterval(Duration.ofMillis(100));
+        // Nothing serves the info port of the fake tunnel, so failed probes must never trigger a restart
+        monitor.setLatencyThreshold(Duration.ofSeconds(1), Integer.MAX_VALUE);
+        monitor.setErrorThreshold(3, Duration.ofMinutes(1));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        monitor.close();
+        Process process = tunnel.getTunnelProcess();
+        if (process != null) {
+            process.destroyForcibly();
+        }
+        try (Stream<Path> files = Files.walk(control)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void restartsTunnelWhenProcessDies() throws Exception {
+        monitor.start();
+        Process original = tunnel.getTunnelProcess();
+
+        Files.createFile(control.resolve("exit"));
+
+        waitUntil(() -> monitor.getRestarts() == 1 && monitor.getState() == TunnelMonitor.State.HEALTHY);
+        assertEquals(original.exitValue(), 3);
+        assertNotEquals(tunnel.getTunnelProcess().pid(), original.pid());
+        assertTrue(tunnel.getTunnelProcess().isAlive());
+    }
+
+    @Test
+    public void restartsTunnelWhenErrorLinesReachThreshold() throws Exception {
+        monitor.start();
+        Process original = tunnel.getTunnelProcess();
+
+        Files.createFile(control.resolve("errors"));
+
+        waitUntil(() -> monitor.getRestarts() == 1 && monitor.getState() == TunnelMonitor.State.HEALTHY);
+        assertNotEquals(tunnel.getTunnelProcess().pid(), original.pid());
+        assertFalse(original.isAlive());
+    }
+
+    @Test
+    public void awaitHealthyPausesWhileTunnelRestarts() throws Exception {
+        monitor.start();
+        assertTrue(monitor.awaitHealthy(Duration.ZERO));
+
+        Files.writeString(control.resolve("start-delay"), "1");
+        Files.createFile(control.resolve("exit"));
+        waitUntil(() -> monitor.getState() == TunnelMonitor.State.RESTARTING);
+
+        assertFalse(monitor.awaitHealthy(Duration.ofMillis(100)), "Returned healthy while the tunnel was restarting");
+        assertTrue(monitor.awaitHealthy(TIMEOUT));
+        assertEquals(monitor.getState(), TunnelMonitor.State.HEALTHY);
+        assertEquals(monitor.getRestarts(), 1);
+    }
+
+    @Test
+    public void reportsFailureOnceRestartsAreUsedUp() throws Exception {
+        monitor.setMaxRestarts(0, 0);
+        monitor.start();
+
+        Files.createFile(control.resolve("exit"));
+
+        waitUntil(() -> monitor.getState() == TunnelMonitor.State.FAILED);
+        assertFalse(monitor.awaitHealthy(Duration.ofMillis(100)));
+        assertEquals(monitor.getRestarts(), 0);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within " + TIMEOUT.toSeconds() + " s");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
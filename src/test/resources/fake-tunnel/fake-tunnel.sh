@@ -0,0 +1,29 @@
+#!/bin/sh
+# Fake tunnel for TunnelMonitorTest, started as: fake-tunnel.sh <control directory> --port <port>
+# It prints the start-up lines Tunnel waits for, then acts on files the test drops in the control directory:
+#   start-delay  seconds to wait before starting up
+#   exit         exit with code 3
+#   errors       print three error lines
+# Each instruction is removed once acted on, so a restarted tunnel runs normally.
+control="$1"
+
+if [ -f "$control/start-delay" ]; then
+  sleep "$(cat "$control/start-delay")"
+fi
+echo "Starting fake tunnel"
+echo "You can start testing now"
+echo "Tunnel ID: $$"
+
+while true; do
+  if [ -f "$control/exit" ]; then
+    rm -f "$control/exit"
+    exit 3
+  fi
+  if [ -f "$control/errors" ]; then
+    rm -f "$control/errors"
+    echo "ERROR: connection lost to tunnel server"
+    echo "ERROR: connection lost to tunnel server"
+    echo "ERROR: connection lost to tunnel server"
+  fi
+  sleep 0.05
+done